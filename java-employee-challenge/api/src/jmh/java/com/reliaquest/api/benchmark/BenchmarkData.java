@@ -0,0 +1,36 @@
+package com.reliaquest.api.benchmark;
+
+import com.reliaquest.api.model.Employee;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+final class BenchmarkData {
+
+    private static final String[] FIRST_NAMES = {
+        "Ann", "Joanna", "John", "Anders", "Maria", "Vipin", "Li", "Fatima", "Oliver", "Sofia", "Mateo", "Aisha"
+    };
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Annan", "Jain", "Garcia", "Nguyen", "Okafor", "Rossi", "Kowalski", "Tanaka"
+    };
+
+    private BenchmarkData() {}
+
+    static List<Employee> employees(int size) {
+        Random random = new Random(42);
+        List<Employee> employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            employees.add(Employee.builder()
+                    .id(new UUID(random.nextLong(), random.nextLong()))
+                    .employeeName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                            + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " " + i)
+                    .employeeSalary(random.nextInt(30_000, 500_000))
+                    .employeeAge(random.nextInt(16, 70))
+                    .employeeTitle("Engineer")
+                    .employeeEmail("employee" + i + "@company.com")
+                    .build());
+        }
+        return employees;
+    }
+}
@@ -0,0 +1,44 @@
+package com.reliaquest.api.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.Response;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Jackson deserialization of the mock API list payload into {@code Response<List<Employee>>}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmployeeDeserializationBenchmark {
+
+    private static final TypeReference<Response<List<Employee>>> EMPLOYEE_LIST = new TypeReference<>() {};
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        payload = objectMapper.writeValueAsBytes(Response.handledWith(BenchmarkData.employees(size)));
+    }
+
+    @Benchmark
+    public Response<List<Employee>> deserializeEmployeeList() throws IOException {
+        return objectMapper.readValue(payload, EMPLOYEE_LIST);
+    }
+}
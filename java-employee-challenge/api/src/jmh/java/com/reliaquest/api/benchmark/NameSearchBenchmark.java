@@ -0,0 +1,52 @@
+package com.reliaquest.api.benchmark;
+
+import com.reliaquest.api.cache.NameIndex;
+import com.reliaquest.api.model.Employee;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Name search: the lower-case-and-contains scan over every employee against the {@link NameIndex} trigram index, for
+ * a short query, a common surname and a selective one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NameSearchBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    @Param({"an", "smith", "kowalski 42"})
+    private String query;
+
+    private List<Employee> employees;
+    private NameIndex nameIndex;
+
+    @Setup
+    public void setUp() {
+        employees = BenchmarkData.employees(size);
+        nameIndex = NameIndex.of(employees);
+    }
+
+    @Benchmark
+    public List<Employee> linearScan() {
+        return employees.stream()
+                .filter(e -> e.getEmployeeName() != null
+                        && e.getEmployeeName().toLowerCase().contains(query.toLowerCase()))
+                .toList();
+    }
+
+    @Benchmark
+    public List<Employee> trigramIndex() {
+        return nameIndex.search(query);
+    }
+}
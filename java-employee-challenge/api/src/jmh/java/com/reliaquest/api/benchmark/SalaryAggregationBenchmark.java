@@ -0,0 +1,62 @@
+package com.reliaquest.api.benchmark;
+
+import com.reliaquest.api.cache.SalaryIndex;
+import com.reliaquest.api.model.Employee;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Highest salary and top-ten earners: the full scan and sort the controller used to do per request against the
+ * {@link SalaryIndex} kept next to the employee snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SalaryAggregationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    private List<Employee> employees;
+    private SalaryIndex salaryIndex;
+
+    @Setup
+    public void setUp() {
+        employees = BenchmarkData.employees(size);
+        salaryIndex = SalaryIndex.of(employees);
+    }
+
+    @Benchmark
+    public int highestSalaryScan() {
+        return employees.stream().mapToInt(Employee::getEmployeeSalary).max().orElse(0);
+    }
+
+    @Benchmark
+    public OptionalInt highestSalaryIndexed() {
+        return salaryIndex.highestSalary();
+    }
+
+    @Benchmark
+    public List<String> topTenSorted() {
+        return employees.stream()
+                .sorted(Comparator.comparingInt(Employee::getEmployeeSalary).reversed())
+                .limit(10)
+                .map(Employee::getEmployeeName)
+                .toList();
+    }
+
+    @Benchmark
+    public List<String> topTenIndexed() {
+        return salaryIndex.top(10).stream().map(Employee::getEmployeeName).toList();
+    }
+}
@@ -0,0 +1,172 @@
+package com.reliaquest.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.config.AppConfig;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.Response;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Wall time for {@code concurrency} requests that arrive at once, each blocking on one mock API call that takes
+ * {@code upstreamDelayMillis} to answer. {@code platform} runs them on a pool the size of Tomcat's default 200 request
+ * threads, so they complete in waves of 200; {@code virtual} gives each its own virtual thread, as
+ * {@code spring.threads.virtual.enabled} does, so all of them wait on the upstream together. Both go through the
+ * pooled client from {@link AppConfig}, sized so the connection pool is not the limit.
+ *
+ * <p>The upstream is an in-process HTTP server that holds each response on a timer rather than a thread. The virtual
+ * mode needs Java 21 ({@code -PjavaVersion=21}); on 17 its setup fails. Each open request holds two sockets, so the
+ * process needs a file limit above twice {@code concurrency}, and the kernel's {@code somaxconn} caps the accept
+ * backlog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(1)
+public class SlowUpstreamLoadBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final ParameterizedTypeReference<Response<List<Employee>>> EMPLOYEE_LIST =
+            new ParameterizedTypeReference<>() {};
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"10000"})
+    private int concurrency;
+
+    @Param({"200"})
+    private int upstreamDelayMillis;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ScheduledExecutorService responseTimer;
+    private CloseableHttpClient pooledClient;
+    private RestTemplate restTemplate;
+    private ExecutorService platformRequests;
+    private Executor requests;
+    private String url;
+    private final AtomicInteger failed = new AtomicInteger();
+
+    @Setup
+    public void setUp() throws IOException {
+        // the JDK server otherwise keeps only 200 idle connections, and the pool's reused ones would be dropped
+        System.setProperty("sun.net.httpserver.maxIdleConnections", String.valueOf(concurrency));
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        byte[] payload = new ObjectMapper().writeValueAsBytes(Response.handledWith(BenchmarkData.employees(10)));
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), concurrency);
+        serverExecutor = Executors.newFixedThreadPool(4);
+        responseTimer = Executors.newSingleThreadScheduledExecutor();
+        server.setExecutor(serverExecutor);
+        server.createContext(
+                "/api/v1/employee",
+                exchange -> responseTimer.schedule(
+                        () -> respond(exchange, payload), upstreamDelayMillis, TimeUnit.MILLISECONDS));
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/v1/employee";
+
+        pooledClient = new AppConfig()
+                .upstreamHttpClient(
+                        concurrency,
+                        concurrency,
+                        concurrency,
+                        0,
+                        Duration.ofSeconds(10),
+                        Duration.ofSeconds(60),
+                        Duration.ofSeconds(60),
+                        Duration.ofSeconds(30),
+                        Duration.ofSeconds(30));
+        restTemplate = new AppConfig().restTemplate(new HttpComponentsClientHttpRequestFactory(pooledClient), false);
+
+        if ("virtual".equals(threads)) {
+            SimpleAsyncTaskExecutor virtualRequests = new SimpleAsyncTaskExecutor("request-");
+            virtualRequests.setVirtualThreads(true);
+            requests = virtualRequests;
+        } else {
+            platformRequests = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+            requests = platformRequests;
+        }
+    }
+
+    private static void respond(HttpExchange exchange, byte[] payload) {
+        try (InputStream ignored = exchange.getRequestBody()) {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, payload.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(payload);
+            }
+        } catch (IOException ex) {
+            exchange.close();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportFailures() {
+        int count = failed.getAndSet(0);
+        if (count > 0) {
+            System.err.println(count + " of " + concurrency + " requests failed");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (platformRequests != null) {
+            platformRequests.shutdownNow();
+        }
+        pooledClient.close();
+        server.stop(0);
+        responseTimer.shutdownNow();
+        serverExecutor.shutdownNow();
+    }
+
+    /*
+     * Failed requests are counted and reported after the iteration; a failure still ends the request, so the time
+     * stays comparable.
+     */
+    @Benchmark
+    public void concurrentSlowRequests() {
+        CompletableFuture<?>[] all = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            all[i] = CompletableFuture.runAsync(
+                    () -> {
+                        try {
+                            restTemplate.exchange(url, HttpMethod.GET, null, EMPLOYEE_LIST);
+                        } catch (RuntimeException ex) {
+                            failed.incrementAndGet();
+                        }
+                    },
+                    requests);
+        }
+        CompletableFuture.allOf(all).join();
+    }
+}
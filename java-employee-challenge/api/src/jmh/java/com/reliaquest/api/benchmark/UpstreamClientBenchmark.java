@@ -0,0 +1,116 @@
+package com.reliaquest.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.config.AppConfig;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.Response;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Throughput and latency percentiles (sample mode reports p99) of the employee list call through the JDK
+ * {@link SimpleClientHttpRequestFactory}, the api's default, against the pooled keep-alive client from
+ * {@link AppConfig} ({@code mock.api.http.pooled}), sized from the bulkheads as in the service. Run it with
+ * {@code -t 40} too, to match the bulkheads' full concurrency. The upstream is
+ * an in-process HTTP server returning a fixed 50-employee payload, so the numbers isolate client-side connection
+ * handling. The server disables Nagle's algorithm; otherwise its separately written headers and body meet the client's
+ * delayed ACK and every call stalls for about 40ms whatever the client does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(16)
+public class UpstreamClientBenchmark {
+
+    // application.yml's bulkheads, so the pool is sized as it is in the service
+    private static final int MAX_CONCURRENT_READS = 32;
+    private static final int MAX_CONCURRENT_WRITES = 8;
+    private static final ParameterizedTypeReference<Response<List<Employee>>> EMPLOYEE_LIST =
+            new ParameterizedTypeReference<>() {};
+
+    @Param({"simple", "pooled"})
+    private String factory;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private CloseableHttpClient pooledClient;
+    private RestTemplate restTemplate;
+    private String url;
+
+    @Setup
+    public void setUp() throws IOException {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        byte[] payload = new ObjectMapper().writeValueAsBytes(Response.handledWith(BenchmarkData.employees(50)));
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 128);
+        serverExecutor = Executors.newFixedThreadPool(32);
+        server.setExecutor(serverExecutor);
+        server.createContext("/api/v1/employee", exchange -> {
+            try (InputStream ignored = exchange.getRequestBody()) {
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, payload.length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(payload);
+                }
+            }
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/v1/employee";
+
+        if ("pooled".equals(factory)) {
+            pooledClient = new AppConfig()
+                    .upstreamHttpClient(
+                            50,
+                            0,
+                            MAX_CONCURRENT_READS,
+                            MAX_CONCURRENT_WRITES,
+                            Duration.ofSeconds(2),
+                            Duration.ofSeconds(5),
+                            Duration.ofSeconds(1),
+                            Duration.ofSeconds(30),
+                            Duration.ofSeconds(30));
+            restTemplate =
+                    new AppConfig().restTemplate(new HttpComponentsClientHttpRequestFactory(pooledClient), false);
+        } else {
+            restTemplate = new RestTemplate(new SimpleClientHttpRequestFactory());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (pooledClient != null) {
+            pooledClient.close();
+        }
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public ResponseEntity<Response<List<Employee>>> fetchEmployees() {
+        return restTemplate.exchange(url, HttpMethod.GET, null, EMPLOYEE_LIST);
+    }
+}
@@ -0,0 +1,66 @@
+package com.reliaquest.api.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.Response;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JSON against Smile for the mock API list payload: serialization and deserialization time per
+ * {@code Response<List<Employee>>}, plus the payload size on the wire, raw and gzipped as the server's response
+ * compression would send it. The sizes are printed once per trial; JMH's auxiliary counters would sum them over the
+ * iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<Response<List<Employee>>> EMPLOYEE_LIST = new TypeReference<>() {};
+
+    @Param({"json", "smile"})
+    private String format;
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private Response<List<Employee>> response;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = "smile".equals(format) ? new SmileMapper() : new ObjectMapper();
+        response = Response.handledWith(BenchmarkData.employees(size));
+        payload = objectMapper.writeValueAsBytes(response);
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream(payload.length);
+        try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+            out.write(payload);
+        }
+        System.out.printf("%s, %d employees: %d bytes, %d gzipped%n", format, size, payload.length, gzipped.size());
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public Response<List<Employee>> deserialize() throws IOException {
+        return objectMapper.readValue(payload, EMPLOYEE_LIST);
+    }
+}
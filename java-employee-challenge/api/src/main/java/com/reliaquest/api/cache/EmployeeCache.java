@@ -0,0 +1,522 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeChange;
+import com.reliaquest.api.model.Versioned;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stale-while-revalidate cache of the mock API employee list.
+ *
+ * <p>The first read loads the list synchronously. After that, readers always get the last good snapshot immediately;
+ * once it is older than the TTL a single background refresh is started and the snapshot is swapped when it completes.
+ * A failed refresh keeps the previous snapshot and is retried after another TTL. A refresh that completes after a local
+ * write or a pushed change is dropped, since its list may predate them, and the next read starts another one.
+ *
+ * <p>Refreshes are conditional: the loader is given the entity tag of the current snapshot, and when the upstream
+ * reports it unchanged the snapshot and its indexes are kept as they are for another TTL instead of being rebuilt.
+ * With a {@link ChangeFeed}, a refresh first asks for the creates and deletes since that tag and applies them to the
+ * snapshot and its indexes in place, so its cost follows the churn rather than the size of the list; the full load is
+ * only used when the feed asks for a resync. Changes can also be pushed with {@link #applyChanges(List, String)}; while
+ * the cache is {@linkplain #setLive(boolean) live} they are the only way it is updated and TTL refreshes are off.
+ *
+ * <p>Each snapshot carries an id map, a {@link SalaryIndex} and a {@link NameIndex} that are built once per load and
+ * then updated in place by {@link #addAll(Collection)}, {@link #removeAllByName(Collection)} and
+ * {@link #removeAllById(Collection)}.
+ */
+@Slf4j
+public class EmployeeCache {
+
+    private final Loader loader;
+    private final ChangeFeed changeFeed;
+    private final long ttlNanos;
+    private final Executor refreshExecutor;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    // a lock rather than a monitor: the cold load holds it across upstream I/O, which would pin a virtual thread
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+    private volatile boolean live;
+    // bumped by every in-place write through this api; guarded by loadLock
+    private long localWrites;
+
+    public EmployeeCache(Supplier<List<Employee>> loader, Duration ttl, Executor refreshExecutor) {
+        this(etag -> Optional.of(new Versioned<>(loader.get(), null)), null, ttl, refreshExecutor);
+    }
+
+    private EmployeeCache(Loader loader, ChangeFeed changeFeed, Duration ttl, Executor refreshExecutor) {
+        this.loader = loader;
+        this.changeFeed = changeFeed;
+        this.ttlNanos = ttl.toNanos();
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    /**
+     * A cache whose refreshes revalidate the current snapshot through {@code loader} instead of always reloading it.
+     */
+    public static EmployeeCache revalidating(Loader loader, Duration ttl, Executor refreshExecutor) {
+        return new EmployeeCache(loader, null, ttl, refreshExecutor);
+    }
+
+    /**
+     * A cache whose refreshes apply the changes since the current snapshot, falling back to revalidating it through
+     * {@code loader} when {@code changeFeed} cannot provide them.
+     */
+    public static EmployeeCache withChangeFeed(
+            Loader loader, ChangeFeed changeFeed, Duration ttl, Executor refreshExecutor) {
+        return new EmployeeCache(loader, changeFeed, ttl, refreshExecutor);
+    }
+
+    /**
+     * Whether a snapshot has been loaded; reads never block on the upstream once this is true.
+     */
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    /**
+     * Starts loading the first snapshot in the background if nothing has been loaded yet and no load is running.
+     */
+    public void prefetch() {
+        if (snapshot != null || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    loadBlocking();
+                } catch (RuntimeException ex) {
+                    log.warn("Employee snapshot prefetch failed: {}", ex.getMessage());
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            log.warn("Employee snapshot prefetch rejected by executor", ex);
+            refreshing.set(false);
+        }
+    }
+
+    public List<Employee> get() {
+        return current().employees();
+    }
+
+    public OptionalInt highestSalary() {
+        return current().salaryIndex().highestSalary();
+    }
+
+    public List<Employee> topEarners(int limit) {
+        return current().salaryIndex().top(limit);
+    }
+
+    /**
+     * Looks the employee up in the current snapshot without loading or refreshing it; empty on a miss or when nothing
+     * has been loaded yet.
+     */
+    public Optional<Employee> peekById(UUID id) {
+        Snapshot current = snapshot;
+        return current == null
+                ? Optional.empty()
+                : Optional.ofNullable(current.byId().get(id));
+    }
+
+    public List<Employee> searchByName(String searchString) {
+        return current().nameIndex().search(searchString);
+    }
+
+    public void add(Employee employee) {
+        addAll(List.of(employee));
+    }
+
+    /**
+     * Adds employees written through this api, skipping ids the snapshot already holds. The snapshot's list is copied
+     * once for the whole batch.
+     */
+    public void addAll(Collection<Employee> added) {
+        loadLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+            List<Employee> employees = null;
+            for (Employee employee : added) {
+                if (employee.getId() != null && current.byId().putIfAbsent(employee.getId(), employee) != null) {
+                    continue;
+                }
+                if (employees == null) {
+                    employees = new ArrayList<>(current.employees().size() + added.size());
+                    employees.addAll(current.employees());
+                }
+                employees.add(employee);
+                current.salaryIndex().add(employee);
+                current.nameIndex().add(employee);
+            }
+            if (employees != null) {
+                snapshot = current.withEmployees(employees);
+                localWrites++;
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    public void removeFirstByName(String name) {
+        removeAllByName(List.of(name));
+    }
+
+    /**
+     * Removes the first employee matching each name, ignoring case, as the upstream does; a name listed twice removes
+     * two employees. One pass over the snapshot serves the whole batch.
+     */
+    public void removeAllByName(Collection<String> names) {
+        loadLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current == null || names.isEmpty()) {
+                return;
+            }
+            Map<String, Integer> pending = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            names.forEach(name -> pending.merge(name, 1, Integer::sum));
+            List<Employee> employees = new ArrayList<>(current.employees().size());
+            boolean removedAny = false;
+            for (Employee employee : current.employees()) {
+                String name = employee.getEmployeeName();
+                Integer count = name == null || pending.isEmpty() ? null : pending.get(name);
+                if (count == null) {
+                    employees.add(employee);
+                    continue;
+                }
+                if (count == 1) {
+                    pending.remove(name);
+                } else {
+                    pending.put(name, count - 1);
+                }
+                if (employee.getId() != null) {
+                    current.byId().remove(employee.getId());
+                }
+                current.salaryIndex().remove(employee);
+                current.nameIndex().remove(employee);
+                removedAny = true;
+            }
+            if (removedAny) {
+                snapshot = current.withEmployees(employees);
+                localWrites++;
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the employees with the given ids; ids the snapshot does not hold are skipped. One pass over the snapshot
+     * serves the whole batch.
+     */
+    public void removeAllById(Collection<UUID> ids) {
+        loadLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+            Set<UUID> removed = new HashSet<>();
+            for (UUID id : ids) {
+                Employee existing = current.byId().remove(id);
+                if (existing != null) {
+                    removed.add(id);
+                    current.salaryIndex().remove(existing);
+                    current.nameIndex().remove(existing);
+                }
+            }
+            if (removed.isEmpty()) {
+                return;
+            }
+            List<Employee> employees = new ArrayList<>(current.employees().size() - removed.size());
+            for (Employee employee : current.employees()) {
+                if (employee.getId() == null || !removed.contains(employee.getId())) {
+                    employees.add(employee);
+                }
+            }
+            snapshot = current.withEmployees(employees);
+            localWrites++;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Entity tag of the current snapshot; null before the first load or when the upstream sent none.
+     */
+    public String etag() {
+        Snapshot current = snapshot;
+        return current == null ? null : current.etag();
+    }
+
+    /**
+     * While live, changes are pushed through {@link #applyChanges(List, String)} and the snapshot is not refreshed when
+     * its TTL expires.
+     */
+    public void setLive(boolean live) {
+        this.live = live;
+    }
+
+    /**
+     * Loads the whole list on the calling thread and replaces the snapshot with it, whatever its age.
+     */
+    public void reload() {
+        Versioned<List<Employee>> loaded = loader.load(null).orElseGet(() -> new Versioned<>(List.of(), null));
+        Snapshot reloaded = Snapshot.of(loaded.data(), loaded.etag(), System.nanoTime() + ttlNanos);
+        loadLock.lock();
+        try {
+            snapshot = reloaded;
+        } finally {
+            loadLock.unlock();
+        }
+        log.debug(
+                "Reloaded employee snapshot: {} employees", reloaded.employees().size());
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return loadBlocking();
+        }
+        if (!live && current.isExpired(System.nanoTime())) {
+            triggerRefresh();
+        }
+        return current;
+    }
+
+    private Snapshot loadBlocking() {
+        loadLock.lock();
+        try {
+            if (snapshot == null) {
+                Versioned<List<Employee>> loaded = loader.load(null).orElseGet(() -> new Versioned<>(List.of(), null));
+                snapshot = Snapshot.of(loaded.data(), loaded.etag(), System.nanoTime() + ttlNanos);
+                log.debug(
+                        "Loaded employee snapshot: {} employees",
+                        snapshot.employees().size());
+            }
+            return snapshot;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private void triggerRefresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(this::refresh);
+        } catch (RejectedExecutionException ex) {
+            log.warn("Employee snapshot refresh rejected by executor", ex);
+            refreshing.set(false);
+        }
+    }
+
+    private void refresh() {
+        try {
+            String etag;
+            long writesBefore;
+            loadLock.lock();
+            try {
+                etag = snapshot.etag();
+                writesBefore = localWrites;
+            } finally {
+                loadLock.unlock();
+            }
+            if (changeFeed != null && etag != null && applyChangeFeed(etag)) {
+                return;
+            }
+            Optional<Versioned<List<Employee>>> loaded = loader.load(etag);
+            if (loaded.isEmpty()) {
+                extendSnapshot();
+                log.debug("Employee snapshot not modified");
+                return;
+            }
+            List<Employee> employees = loaded.get().data();
+            Snapshot refreshed = Snapshot.of(employees, loaded.get().etag(), System.nanoTime() + ttlNanos);
+            loadLock.lock();
+            try {
+                if (!Objects.equals(snapshot.etag(), etag) || localWrites != writesBefore) {
+                    // pushed changes, a reload or a local write moved the snapshot on while this was loading; the
+                    // list may predate a local write, so it is dropped and the still expired snapshot refreshes again
+                    log.debug("Discarded employee snapshot refresh that raced with a newer change");
+                    return;
+                }
+                snapshot = refreshed;
+            } finally {
+                loadLock.unlock();
+            }
+            log.debug("Refreshed employee snapshot: {} employees", employees.size());
+        } catch (RuntimeException ex) {
+            log.warn("Employee snapshot refresh failed, serving stale data: {}", ex.getMessage());
+            extendSnapshot();
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    // returns false when the feed asks for a resync
+    private boolean applyChangeFeed(String etag) {
+        Optional<Versioned<List<EmployeeChange>>> delta = changeFeed.changesSince(etag);
+        if (delta.isEmpty()) {
+            log.debug("Employee change feed asked for a resync");
+            return false;
+        }
+        applyChanges(delta.get().data(), delta.get().etag());
+        return true;
+    }
+
+    /**
+     * Applies upstream creates and deletes to the snapshot and its indexes and moves it to {@code etag}; ignored before
+     * the first load. Changes may overlap what the snapshot already holds (the tag can be older than the data it was
+     * served with, and local mutations are applied eagerly), so creates of a known id and deletes of an unknown one
+     * are skipped. The list is copied once per batch, the indexes are updated per change, so pushed events should be
+     * applied in batches rather than one by one.
+     */
+    public void applyChanges(List<EmployeeChange> changes, String etag) {
+        loadLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+            List<Employee> added = new ArrayList<>();
+            Set<UUID> removed = new HashSet<>();
+            for (EmployeeChange change : changes) {
+                Employee employee = change.employee();
+                if (employee == null || employee.getId() == null) {
+                    continue;
+                }
+                if (change.type() == EmployeeChange.Type.CREATED) {
+                    if (current.byId().putIfAbsent(employee.getId(), employee) == null) {
+                        added.add(employee);
+                        current.salaryIndex().add(employee);
+                        current.nameIndex().add(employee);
+                    }
+                } else {
+                    Employee existing = current.byId().remove(employee.getId());
+                    if (existing != null) {
+                        removed.add(existing.getId());
+                        current.salaryIndex().remove(existing);
+                        current.nameIndex().remove(existing);
+                    }
+                }
+            }
+            long expiresAtNanos = System.nanoTime() + ttlNanos;
+            if (added.isEmpty() && removed.isEmpty()) {
+                snapshot = current.withEtag(etag, expiresAtNanos);
+            } else {
+                List<Employee> employees = new ArrayList<>(current.employees().size() + added.size());
+                for (Employee employee : current.employees()) {
+                    if (employee.getId() == null || !removed.contains(employee.getId())) {
+                        employees.add(employee);
+                    }
+                }
+                for (Employee employee : added) {
+                    if (!removed.contains(employee.getId())) {
+                        employees.add(employee);
+                    }
+                }
+                snapshot = current.withEmployees(employees).withEtag(etag, expiresAtNanos);
+            }
+        } finally {
+            loadLock.unlock();
+        }
+        log.debug("Applied {} employee changes to the snapshot", changes.size());
+    }
+
+    private void extendSnapshot() {
+        loadLock.lock();
+        try {
+            snapshot = snapshot.withExpiry(System.nanoTime() + ttlNanos);
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private record Snapshot(
+            List<Employee> employees,
+            Map<UUID, Employee> byId,
+            SalaryIndex salaryIndex,
+            NameIndex nameIndex,
+            String etag,
+            long expiresAtNanos) {
+
+        static Snapshot of(List<Employee> employees, String etag, long expiresAtNanos) {
+            Map<UUID, Employee> byId = new ConcurrentHashMap<>(employees.size() * 4 / 3 + 1);
+            for (Employee employee : employees) {
+                if (employee.getId() != null) {
+                    byId.put(employee.getId(), employee);
+                }
+            }
+            return new Snapshot(
+                    Collections.unmodifiableList(employees),
+                    byId,
+                    SalaryIndex.of(employees),
+                    NameIndex.of(employees),
+                    etag,
+                    expiresAtNanos);
+        }
+
+        boolean isExpired(long nowNanos) {
+            return nowNanos - expiresAtNanos >= 0;
+        }
+
+        Snapshot withEmployees(List<Employee> employees) {
+            return new Snapshot(
+                    Collections.unmodifiableList(employees), byId, salaryIndex, nameIndex, etag, expiresAtNanos);
+        }
+
+        Snapshot withExpiry(long expiresAtNanos) {
+            return new Snapshot(employees, byId, salaryIndex, nameIndex, etag, expiresAtNanos);
+        }
+
+        Snapshot withEtag(String etag, long expiresAtNanos) {
+            return new Snapshot(employees, byId, salaryIndex, nameIndex, etag, expiresAtNanos);
+        }
+    }
+
+    /**
+     * Loads the employee list, revalidating against {@code etag} when it is not null: an empty result means the list
+     * behind that tag is unchanged. The snapshot keeps the returned list without copying it, so it must not be changed
+     * afterwards.
+     */
+    @FunctionalInterface
+    public interface Loader {
+
+        Optional<Versioned<List<Employee>>> load(String etag);
+    }
+
+    /**
+     * Creates and deletes since {@code etag}, oldest first, tagged with the version they lead to; empty when the list
+     * has to be reloaded instead.
+     */
+    @FunctionalInterface
+    public interface ChangeFeed {
+
+        Optional<Versioned<List<EmployeeChange>>> changesSince(String etag);
+    }
+}
@@ -0,0 +1,197 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.model.Employee;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Trigram inverted index over lower-cased employee names, answering the same question as
+ * {@code name.toLowerCase().contains(search.toLowerCase())}.
+ *
+ * <p>The index is built once per snapshot: every name contributes its distinct trigrams, and each trigram maps to the
+ * ascending positions of the names containing it. A query of three or more characters only verifies the positions in
+ * the shortest posting list of its trigrams; shorter queries scan the pre-lowered names. Employees added after the
+ * build are kept in a small overlay that is scanned linearly, removed ones are masked out, so results keep the
+ * snapshot order followed by additions in insertion order.
+ *
+ * <p>Once the overlay and the mask together pass an eighth of the indexed names, the postings are rebuilt from the
+ * surviving names followed by the additions, so a long run of deltas does not slide searches back into a linear scan.
+ */
+public class NameIndex {
+
+    private static final int[] NO_POSTINGS = new int[0];
+    private static final int MIN_COMPACTION_THRESHOLD = 64;
+
+    // replaced as a whole on compaction, so a search never mixes postings with another build's overlay
+    private volatile State state;
+
+    private NameIndex(State state) {
+        this.state = state;
+    }
+
+    public static NameIndex of(List<Employee> employees) {
+        return new NameIndex(State.of(employees));
+    }
+
+    public List<Employee> search(String searchString) {
+        State current = state;
+        String query = searchString.toLowerCase();
+        List<Employee> matched = new ArrayList<>();
+        if (query.length() < 3) {
+            for (int i = 0; i < current.employees.length; i++) {
+                current.addIfMatches(matched, i, query);
+            }
+        } else {
+            for (int position : current.shortestPosting(query)) {
+                current.addIfMatches(matched, position, query);
+            }
+        }
+        for (Added added : current.added) {
+            if (added.lowerName() != null && added.lowerName().contains(query)) {
+                matched.add(added.employee());
+            }
+        }
+        return matched;
+    }
+
+    public synchronized void add(Employee employee) {
+        String name = employee.getEmployeeName();
+        state.added.add(new Added(employee, name == null ? null : name.toLowerCase()));
+        compactIfNeeded();
+    }
+
+    public synchronized void remove(Employee employee) {
+        State current = state;
+        Integer position = current.positions.get(employee);
+        if (position != null) {
+            current.removed.add(position);
+        } else {
+            for (int i = 0; i < current.added.size(); i++) {
+                if (current.added.get(i).employee().equals(employee)) {
+                    current.added.remove(i);
+                    break;
+                }
+            }
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * Additions and removals not yet folded into the postings.
+     */
+    int overlaySize() {
+        State current = state;
+        return current.added.size() + current.removed.size();
+    }
+
+    private void compactIfNeeded() {
+        State current = state;
+        int threshold = Math.max(MIN_COMPACTION_THRESHOLD, current.employees.length / 8);
+        if (current.added.size() + current.removed.size() <= threshold) {
+            return;
+        }
+        List<Employee> employees = new ArrayList<>(current.employees.length + current.added.size());
+        for (int i = 0; i < current.employees.length; i++) {
+            if (!current.removed.contains(i)) {
+                employees.add(current.employees[i]);
+            }
+        }
+        current.added.forEach(added -> employees.add(added.employee()));
+        state = State.of(employees);
+    }
+
+    private static final class State {
+
+        private final Employee[] employees;
+        private final String[] lowerNames;
+        private final Map<Long, int[]> postings;
+        private final Map<Employee, Integer> positions;
+        private final Set<Integer> removed = ConcurrentHashMap.newKeySet();
+        private final List<Added> added = new CopyOnWriteArrayList<>();
+
+        private State(Employee[] employees, String[] lowerNames, Map<Long, int[]> postings) {
+            this.employees = employees;
+            this.lowerNames = lowerNames;
+            this.postings = postings;
+            this.positions = new IdentityHashMap<>(employees.length);
+            for (int i = 0; i < employees.length; i++) {
+                positions.put(employees[i], i);
+            }
+        }
+
+        static State of(List<Employee> employees) {
+            Employee[] indexed = employees.toArray(Employee[]::new);
+            String[] lowerNames = new String[indexed.length];
+            Map<Long, PostingBuilder> builders = new HashMap<>();
+            for (int i = 0; i < indexed.length; i++) {
+                String name = indexed[i].getEmployeeName();
+                if (name == null) {
+                    continue;
+                }
+                String lowerName = name.toLowerCase();
+                lowerNames[i] = lowerName;
+                for (int start = 0; start + 3 <= lowerName.length(); start++) {
+                    builders.computeIfAbsent(trigram(lowerName, start), ignored -> new PostingBuilder())
+                            .add(i);
+                }
+            }
+            Map<Long, int[]> postings = new HashMap<>(builders.size() * 4 / 3 + 1);
+            builders.forEach((trigram, builder) -> postings.put(trigram, builder.toArray()));
+            return new State(indexed, lowerNames, postings);
+        }
+
+        void addIfMatches(List<Employee> matched, int position, String query) {
+            String lowerName = lowerNames[position];
+            if (lowerName != null && lowerName.contains(query) && !removed.contains(position)) {
+                matched.add(employees[position]);
+            }
+        }
+
+        int[] shortestPosting(String query) {
+            int[] shortest = null;
+            for (int start = 0; start + 3 <= query.length(); start++) {
+                int[] posting = postings.get(trigram(query, start));
+                if (posting == null) {
+                    return NO_POSTINGS;
+                }
+                if (shortest == null || posting.length < shortest.length) {
+                    shortest = posting;
+                }
+            }
+            return shortest;
+        }
+    }
+
+    private record Added(Employee employee, String lowerName) {}
+
+    private static long trigram(String value, int start) {
+        return ((long) value.charAt(start) << 32) | ((long) value.charAt(start + 1) << 16) | value.charAt(start + 2);
+    }
+
+    private static final class PostingBuilder {
+        private int[] positions = new int[4];
+        private int size;
+
+        void add(int position) {
+            // names are indexed in order, so a repeated trigram within one name is always the last entry
+            if (size > 0 && positions[size - 1] == position) {
+                return;
+            }
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(positions, size);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.reliaquest.api.cache;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived memory of keys the upstream reported as missing, so repeated lookups of an unknown key do not each spend
+ * a request. Entries expire after the TTL; when the cache reaches its maximum size it drops expired entries, and if
+ * that is not enough, all of them.
+ */
+public class NegativeCache<K> {
+
+    private final long ttlNanos;
+    private final int maxSize;
+    private final ConcurrentHashMap<K, Long> expiries = new ConcurrentHashMap<>();
+
+    public NegativeCache(Duration ttl, int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    public boolean contains(K key) {
+        Long expiresAt = expiries.get(key);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - expiresAt >= 0) {
+            expiries.remove(key, expiresAt);
+            return false;
+        }
+        return true;
+    }
+
+    public void put(K key) {
+        if (ttlNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (expiries.size() >= maxSize) {
+            expiries.values().removeIf(expiresAt -> now - expiresAt >= 0);
+            if (expiries.size() >= maxSize) {
+                expiries.clear();
+            }
+        }
+        expiries.put(key, now + ttlNanos);
+    }
+
+    public void remove(K key) {
+        expiries.remove(key);
+    }
+}
@@ -0,0 +1,73 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.model.Employee;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Employees ordered by salary, highest first, maintained incrementally as employees are added and removed. The highest
+ * salary is read from the head of the set and the top k earners by walking its first k entries.
+ *
+ * <p>Equal salaries are ordered by id and then by insertion, so employees that tie on both, such as two without an id,
+ * are all kept rather than collapsing into one entry of the set.
+ */
+public class SalaryIndex {
+
+    static final Comparator<Employee> BY_SALARY_DESC = Comparator.comparingInt(Employee::getEmployeeSalary)
+            .reversed()
+            .thenComparing(Employee::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private static final Comparator<Entry> BY_SALARY_DESC_THEN_INSERTION =
+            Comparator.comparing(Entry::employee, BY_SALARY_DESC).thenComparingLong(Entry::sequence);
+
+    private final ConcurrentSkipListSet<Entry> employees = new ConcurrentSkipListSet<>(BY_SALARY_DESC_THEN_INSERTION);
+    private final AtomicLong sequence = new AtomicLong();
+
+    public static SalaryIndex of(Collection<Employee> employees) {
+        SalaryIndex index = new SalaryIndex();
+        employees.forEach(index::add);
+        return index;
+    }
+
+    public void add(Employee employee) {
+        employees.add(new Entry(employee, sequence.getAndIncrement()));
+    }
+
+    /**
+     * Removes one entry equal to the employee; only the entries that tie with it on salary and id are searched.
+     */
+    public void remove(Employee employee) {
+        NavigableSet<Entry> ties =
+                employees.subSet(new Entry(employee, Long.MIN_VALUE), true, new Entry(employee, Long.MAX_VALUE), true);
+        for (Entry entry : ties) {
+            if (entry.employee().equals(employee) && employees.remove(entry)) {
+                return;
+            }
+        }
+    }
+
+    public OptionalInt highestSalary() {
+        Iterator<Entry> iterator = employees.iterator();
+        return iterator.hasNext()
+                ? OptionalInt.of(iterator.next().employee().getEmployeeSalary())
+                : OptionalInt.empty();
+    }
+
+    public List<Employee> top(int limit) {
+        List<Employee> top = new ArrayList<>(limit);
+        Iterator<Entry> iterator = employees.iterator();
+        while (top.size() < limit && iterator.hasNext()) {
+            top.add(iterator.next().employee());
+        }
+        return top;
+    }
+
+    private record Entry(Employee employee, long sequence) {}
+}
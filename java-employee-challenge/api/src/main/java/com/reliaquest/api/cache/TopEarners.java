@@ -0,0 +1,60 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.model.Employee;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Single-pass highest salary and top k earners over a stream of employees, keeping only the k best seen so far in a
+ * bounded min-heap. Results match {@link SalaryIndex} over the same employees. Not thread-safe; feed it from one
+ * thread.
+ */
+public class TopEarners implements Consumer<Employee> {
+
+    private final int limit;
+    // worst of the retained employees at the head, so it is the one evicted
+    private final PriorityQueue<Employee> heap;
+    private int highestSalary;
+    private long seen;
+
+    public TopEarners(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive: " + limit);
+        }
+        this.limit = limit;
+        this.heap = new PriorityQueue<>(limit + 1, SalaryIndex.BY_SALARY_DESC.reversed());
+    }
+
+    @Override
+    public void accept(Employee employee) {
+        if (seen++ == 0 || employee.getEmployeeSalary() > highestSalary) {
+            highestSalary = employee.getEmployeeSalary();
+        }
+        if (heap.size() < limit) {
+            heap.add(employee);
+        } else if (SalaryIndex.BY_SALARY_DESC.compare(employee, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(employee);
+        }
+    }
+
+    public OptionalInt highestSalary() {
+        return seen == 0 ? OptionalInt.empty() : OptionalInt.of(highestSalary);
+    }
+
+    /**
+     * The retained employees, highest salary first.
+     */
+    public List<Employee> top() {
+        List<Employee> top = new ArrayList<>(heap);
+        top.sort(SalaryIndex.BY_SALARY_DESC);
+        return top;
+    }
+
+    public long seen() {
+        return seen;
+    }
+}
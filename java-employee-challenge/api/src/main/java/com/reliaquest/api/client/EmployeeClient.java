@@ -0,0 +1,79 @@
+package com.reliaquest.api.client;
+
+import com.reliaquest.api.model.CreateEmployeeInput;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeAggregates;
+import com.reliaquest.api.model.EmployeeChanges;
+import com.reliaquest.api.model.EmployeePage;
+import com.reliaquest.api.model.Versioned;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Calls to the mock employee API. Implementations translate upstream failures into the api exceptions:
+ * {@link com.reliaquest.api.exception.TooManyRequestsException} for 429s,
+ * {@link com.reliaquest.api.exception.EmployeeNotFoundException} or
+ * {@link com.reliaquest.api.exception.EmployeeNotCreatedException} for 404s and
+ * {@link com.reliaquest.api.exception.ExternalApiException} for everything else.
+ */
+public interface EmployeeClient {
+
+    /**
+     * The whole list, revalidated against {@code etag}: empty when the mock API answers 304 Not Modified, otherwise the
+     * list with the tag it was served with. A null {@code etag} always fetches.
+     */
+    Optional<Versioned<List<Employee>>> fetchEmployees(String etag);
+
+    /**
+     * One page of at most {@code limit} employees after {@code cursor}; a null cursor starts from the beginning.
+     * Revalidated against {@code etag} like {@link #fetchEmployees(String)}; the tag covers the whole list, so a 304 on
+     * any page means nothing has changed.
+     */
+    Optional<Versioned<EmployeePage>> fetchEmployeePage(String cursor, int limit, String etag);
+
+    /**
+     * Creates and deletes since the list version named by {@code etag}. Asks for a resync when the upstream cannot
+     * serve them, including when it has no change feed.
+     */
+    EmployeeChanges fetchChangesSince(String etag);
+
+    /**
+     * Reads the newline-delimited employee stream and hands each employee to {@code sink}, on the calling thread, as
+     * soon as it is parsed; nothing is collected. Returns the number of employees delivered.
+     */
+    long streamEmployees(Consumer<? super Employee> sink);
+
+    /**
+     * Count and highest salary, computed upstream. Empty only when the mock API answers 404, i.e. it does not serve
+     * aggregates; any other failure, including a response without data, throws.
+     */
+    Optional<EmployeeAggregates> fetchAggregates();
+
+    /**
+     * Up to {@code limit} employees with the highest salaries, highest first, computed upstream. Empty only when the
+     * mock API answers 404, as for {@link #fetchAggregates()}.
+     */
+    Optional<List<Employee>> fetchTopEarners(int limit);
+
+    Optional<Employee> fetchEmployeeById(String id);
+
+    Optional<Employee> createEmployee(CreateEmployeeInput request);
+
+    boolean deleteEmployeeByName(String name);
+
+    /**
+     * Creates all of {@code requests} in one upstream request. Returns the created employees in request order.
+     */
+    List<Employee> createEmployees(List<CreateEmployeeInput> requests);
+
+    /**
+     * Deletes the employees with the given ids in one upstream request. Returns the employees actually deleted.
+     */
+    List<Employee> deleteEmployeesById(List<String> ids);
+
+    /**
+     * Looks up all of {@code ids} in one upstream request. Ids the upstream does not know are left out.
+     */
+    List<Employee> fetchEmployeesByIds(List<String> ids);
+}
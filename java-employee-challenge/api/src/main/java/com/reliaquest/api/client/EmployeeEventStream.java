@@ -0,0 +1,262 @@
+package com.reliaquest.api.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.exception.ExternalApiException;
+import com.reliaquest.api.exception.TooManyRequestsException;
+import com.reliaquest.api.model.EmployeeChange;
+import com.reliaquest.api.upstream.QuotaScheduler;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClientRequest;
+
+/**
+ * Follows the mock API's server-sent employee events on a dedicated thread and hands them to a {@link Listener}.
+ *
+ * <p>Every connection resumes from {@link Listener#lastEventId()}, so the server replays whatever was missed while
+ * disconnected; until there is an id to resume from nothing is requested. When the server no longer has the missed
+ * changes it says so with a {@code resync} event, and the listener reloads before the stream reconnects from the new
+ * id. Lost connections are retried with jittered exponential backoff, never sooner than a 429's Retry-After.
+ *
+ * <p>Each connection attempt counts against the mock API's rate limit, so it is made through the {@link QuotaScheduler}
+ * like any other upstream call: it waits for the learned quota, and a 429 teaches the scheduler. The scheduler only
+ * holds the attempt until the response headers arrive, so an open stream does not keep a token in flight.
+ *
+ * <p>Changes are handed over in batches: those arriving within {@code batchWindow} of each other, up to
+ * {@code batchSize}, reach the listener together, so a burst or a replay costs one snapshot update per batch rather than
+ * one per change.
+ *
+ * <p>The server sends a heartbeat comment on idle streams; a stream silent for longer than {@code idleTimeout} is
+ * treated as dead and reconnected.
+ */
+@Slf4j
+public class EmployeeEventStream implements Closeable {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> EVENT =
+            new ParameterizedTypeReference<>() {};
+
+    private final WebClient webClient;
+    private final QuotaScheduler quotaScheduler;
+    private final ObjectMapper objectMapper;
+    private final Listener listener;
+    private final Duration idleTimeout;
+    private final long minBackoffMillis;
+    private final long maxBackoffMillis;
+    private final int batchSize;
+    private final Duration batchWindow;
+    private final Thread thread;
+    private volatile boolean closed;
+
+    // owned by the stream thread
+    private long backoffMillis;
+
+    public EmployeeEventStream(
+            WebClient webClient,
+            QuotaScheduler quotaScheduler,
+            ObjectMapper objectMapper,
+            Listener listener,
+            Duration idleTimeout,
+            Duration minBackoff,
+            Duration maxBackoff,
+            int batchSize,
+            Duration batchWindow) {
+        this.webClient = webClient;
+        this.quotaScheduler = quotaScheduler;
+        this.objectMapper = objectMapper;
+        this.listener = listener;
+        this.idleTimeout = idleTimeout;
+        this.minBackoffMillis = Math.max(1, minBackoff.toMillis());
+        this.maxBackoffMillis = Math.max(minBackoffMillis, maxBackoff.toMillis());
+        this.backoffMillis = minBackoffMillis;
+        this.batchSize = Math.max(1, batchSize);
+        this.batchWindow = batchWindow;
+        this.thread = new Thread(this::run, "employee-event-stream");
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        thread.interrupt();
+    }
+
+    private void run() {
+        while (!closed) {
+            String lastEventId = listener.lastEventId();
+            if (lastEventId == null) {
+                // nothing to resume from until the list has been loaded
+                sleep(minBackoffMillis);
+                continue;
+            }
+            Duration retryAfter = null;
+            try {
+                if (follow(lastEventId)) {
+                    listener.onLive(false);
+                    log.info("Employee event stream asked for a resync, reloading employees");
+                    listener.onResync();
+                    continue;
+                }
+                log.info("Employee event stream closed by the mock API");
+            } catch (TooManyRequestsException ex) {
+                // also thrown by the scheduler, without calling the mock API, while the quota is used up
+                retryAfter = ex.getRetryAfter().orElse(null);
+                log.warn("Employee event stream refused: {}", ex.getMessage());
+            } catch (WebClientResponseException ex) {
+                retryAfter = RetryAfter.from(ex.getHeaders());
+                log.warn(
+                        "Employee event stream refused: status={}",
+                        ex.getStatusCode().value());
+            } catch (RuntimeException ex) {
+                if (closed) {
+                    break;
+                }
+                log.warn("Employee event stream lost: {}", ex.getMessage());
+            }
+            listener.onLive(false);
+            long delay = Math.max(backoffMillis, retryAfter == null ? 0 : retryAfter.toMillis());
+            backoffMillis = Math.min(backoffMillis * 2, maxBackoffMillis);
+            sleep(ThreadLocalRandom.current().nextLong(delay / 2, delay + 1));
+        }
+        listener.onLive(false);
+    }
+
+    /*
+     * Returns true when the server asked for a resync, false when it ended the stream; everything else is thrown.
+     */
+    private boolean follow(String lastEventId) {
+        ResponseEntity<Flux<ServerSentEvent<String>>> response = quotaScheduler.execute(() -> connect(lastEventId));
+        try (Stream<List<ServerSentEvent<String>>> batches = response.getBody()
+                // heartbeats carry no event name
+                .filter(event -> event.event() != null)
+                .bufferTimeout(batchSize, batchWindow, true)
+                .toStream()) {
+            Iterator<List<ServerSentEvent<String>>> iterator = batches.iterator();
+            while (!closed && iterator.hasNext()) {
+                if (dispatch(iterator.next())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // returns once the response headers are in; the events are read from the body afterwards
+    private ResponseEntity<Flux<ServerSentEvent<String>>> connect(String lastEventId) {
+        log.info("Calling  API: {} -start", "/employee/events");
+        try {
+            return webClient
+                    .get()
+                    .uri("/employee/events")
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .header("Last-Event-ID", lastEventId)
+                    .httpRequest(request -> {
+                        HttpClientRequest nativeRequest = request.getNativeRequest();
+                        nativeRequest.responseTimeout(idleTimeout);
+                    })
+                    .retrieve()
+                    .toEntityFlux(EVENT)
+                    .block();
+        } catch (WebClientResponseException ex) {
+            if (ex.getStatusCode().value() == 429) {
+                throw new TooManyRequestsException(
+                        "Employee event stream refused by the mock API rate limit",
+                        ex,
+                        RetryAfter.from(ex.getHeaders()));
+            }
+            throw ex;
+        }
+    }
+
+    // returns true on a resync; changes still pending then are dropped, the reload supersedes them
+    private boolean dispatch(List<ServerSentEvent<String>> batch) {
+        List<EmployeeChange> changes = new ArrayList<>(batch.size());
+        String etag = null;
+        for (ServerSentEvent<String> event : batch) {
+            switch (event.event()) {
+                case "change" -> {
+                    changes.add(parseChange(event.data()));
+                    etag = event.id();
+                }
+                case "ready" -> {
+                    deliver(changes, etag);
+                    backoffMillis = minBackoffMillis;
+                    listener.onLive(true);
+                    log.debug("Employee event stream live at {}", event.id());
+                }
+                case "resync" -> {
+                    return true;
+                }
+                default -> log.debug("Ignoring employee event: {}", event.event());
+            }
+        }
+        deliver(changes, etag);
+        return false;
+    }
+
+    private void deliver(List<EmployeeChange> changes, String etag) {
+        if (!changes.isEmpty()) {
+            listener.onChanges(List.copyOf(changes), etag);
+            changes.clear();
+        }
+    }
+
+    private EmployeeChange parseChange(String data) {
+        try {
+            return objectMapper.readValue(data, EmployeeChange.class);
+        } catch (JsonProcessingException ex) {
+            throw new ExternalApiException("Malformed employee event from mock API", ex);
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            closed = true;
+        }
+    }
+
+    /**
+     * Receives the events, always on the stream thread and in order.
+     */
+    public interface Listener {
+
+        /**
+         * Entity tag of the data the listener holds, sent as {@code Last-Event-ID}; null while it holds nothing.
+         */
+        String lastEventId();
+
+        /**
+         * Changes in the order the server sent them, {@code etag} being the id of the last one.
+         */
+        void onChanges(List<EmployeeChange> changes, String etag);
+
+        /**
+         * True once the replay is done and changes arrive as they happen; false as soon as the stream is lost.
+         */
+        void onLive(boolean live);
+
+        /**
+         * The changes since {@link #lastEventId()} are gone; the listener should reload before the next connection.
+         */
+        void onResync();
+    }
+}
@@ -0,0 +1,71 @@
+package com.reliaquest.api.client;
+
+import com.reliaquest.api.exception.ExternalApiException;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeePage;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Walks the paginated employee list one page at a time. A page is fetched only when the previous one has been
+ * consumed, so no more than one page of the upstream response is held at once. Fetch failures propagate from
+ * {@link #hasNext()} or {@link #next()}.
+ */
+public class EmployeePageIterator implements Iterator<Employee> {
+
+    private final PageFetcher fetcher;
+    private final int pageSize;
+    private Iterator<Employee> page = Collections.emptyIterator();
+    private String cursor;
+    private boolean lastPage;
+
+    public EmployeePageIterator(PageFetcher fetcher, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be positive: " + pageSize);
+        }
+        this.fetcher = fetcher;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Starts from a first page the caller has already fetched, for example with a conditional request.
+     */
+    public EmployeePageIterator(PageFetcher fetcher, int pageSize, EmployeePage firstPage) {
+        this(fetcher, pageSize);
+        accept(firstPage);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!page.hasNext() && !lastPage) {
+            accept(fetcher.fetch(cursor, pageSize));
+        }
+        return page.hasNext();
+    }
+
+    @Override
+    public Employee next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.next();
+    }
+
+    private void accept(EmployeePage next) {
+        if (next.nextCursor() != null && next.nextCursor().equals(cursor)) {
+            throw new ExternalApiException("Mock API returned the same cursor twice: " + cursor, null);
+        }
+        page = next.employees() == null
+                ? Collections.emptyIterator()
+                : next.employees().iterator();
+        cursor = next.nextCursor();
+        lastPage = cursor == null;
+    }
+
+    @FunctionalInterface
+    public interface PageFetcher {
+
+        EmployeePage fetch(String cursor, int limit);
+    }
+}
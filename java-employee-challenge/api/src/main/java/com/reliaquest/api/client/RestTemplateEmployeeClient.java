@@ -0,0 +1,425 @@
+package com.reliaquest.api.client;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.exception.*;
+import com.reliaquest.api.model.CreateEmployeeInput;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeAggregates;
+import com.reliaquest.api.model.EmployeeChanges;
+import com.reliaquest.api.model.EmployeePage;
+import com.reliaquest.api.model.Response;
+import com.reliaquest.api.model.Versioned;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.*;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.*;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.*;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+@Slf4j
+@Component
+public class RestTemplateEmployeeClient implements EmployeeClient {
+
+    @Value("${mock.api.base-url}")
+    private String mockApiBaseUrl;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public Optional<Versioned<List<Employee>>> fetchEmployees(String etag) {
+        String url = mockApiBaseUrl + "/employee";
+        log.info("Calling  API: {} -start", url);
+
+        try {
+            ResponseEntity<Response<List<Employee>>> response = restTemplate.exchange(
+                    url,
+                    HttpMethod.GET,
+                    conditional(etag),
+                    new ParameterizedTypeReference<Response<List<Employee>>>() {});
+            log.debug("Received response: status={}", response.getStatusCode());
+            if (response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                return Optional.empty();
+            } else if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                return Optional.of(new Versioned<>(
+                        response.getBody().data(), response.getHeaders().getETag()));
+            } else {
+                log.warn("Non-successful response status: {}", response.getStatusCode());
+                return Optional.of(new Versioned<>(List.of(), null));
+            }
+        } catch (HttpStatusCodeException ex) {
+            HttpStatusCode status = ex.getStatusCode();
+            log.error("HTTP error while calling mock API: status={}, message={}", status.value(), ex.getMessage());
+
+            if (status.value() == HttpStatus.NOT_FOUND.value()) {
+                // No employees found, return empty list
+                return Optional.of(new Versioned<>(List.of(), null));
+            } else if (status.value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                throw new TooManyRequestsException(
+                        "Rate limit exceeded while fetching employees", ex, RetryAfter.from(ex.getResponseHeaders()));
+            } else {
+                throw new ExternalApiException("Error fetching employees from mock API: " + status, ex);
+            }
+        } catch (RestClientException ex) {
+            throw new ExternalApiException("Mock service unavailable:Failed to featch employees", ex);
+        }
+    }
+
+    @Override
+    public Optional<Versioned<EmployeePage>> fetchEmployeePage(String cursor, int limit, String etag) {
+        URI url = UriComponentsBuilder.fromHttpUrl(mockApiBaseUrl + "/employee")
+                .queryParam("limit", limit)
+                .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                .encode()
+                .build()
+                .toUri();
+        log.info("Calling  API: {} -start", url);
+
+        try {
+            ResponseEntity<Response<EmployeePage>> response = restTemplate.exchange(
+                    url,
+                    HttpMethod.GET,
+                    conditional(etag),
+                    new ParameterizedTypeReference<Response<EmployeePage>>() {});
+            log.debug("Received page: status={}", response.getStatusCode());
+            if (response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                return Optional.empty();
+            }
+            if (response.getStatusCode().is2xxSuccessful()
+                    && response.getBody() != null
+                    && response.getBody().data() != null) {
+                return Optional.of(new Versioned<>(
+                        response.getBody().data(), response.getHeaders().getETag()));
+            }
+            log.warn("Non-successful response status: {}", response.getStatusCode());
+            return Optional.of(new Versioned<>(new EmployeePage(List.of(), null), null));
+        } catch (HttpStatusCodeException ex) {
+            HttpStatusCode status = ex.getStatusCode();
+            log.error("HTTP error while calling mock API: status={}, message={}", status.value(), ex.getMessage());
+
+            if (status.value() == HttpStatus.NOT_FOUND.value()) {
+                return Optional.of(new Versioned<>(new EmployeePage(List.of(), null), null));
+            } else if (status.value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                throw new TooManyRequestsException(
+                        "Rate limit exceeded while fetching employees", ex, RetryAfter.from(ex.getResponseHeaders()));
+            } else {
+                throw new ExternalApiException("Error fetching employees from mock API: " + status, ex);
+            }
+        } catch (RestClientException ex) {
+            throw new ExternalApiException("Mock service unavailable:Failed to fetch employees", ex);
+        }
+    }
+
+    @Override
+    public EmployeeChanges fetchChangesSince(String etag) {
+        URI url = UriComponentsBuilder.fromHttpUrl(mockApiBaseUrl + "/employee/changes")
+                .queryParam("since", etag)
+                .encode()
+                .build()
+                .toUri();
+        log.info("Calling  API: {} -start", url);
+
+        try {
+            ResponseEntity<Response<EmployeeChanges>> response = restTemplate.exchange(
+                    url, HttpMethod.GET, null, new ParameterizedTypeReference<Response<EmployeeChanges>>() {});
+            log.debug("Received changes: status={}", response.getStatusCode());
+            if (response.getStatusCode().is2xxSuccessful()
+                    && response.getBody() != null
+                    && response.getBody().data() != null) {
+                return response.getBody().data();
+            }
+            log.warn("Non-successful response status: {}", response.getStatusCode());
+            return EmployeeChanges.resyncRequired();
+        } catch (HttpStatusCodeException ex) {
+            HttpStatusCode status = ex.getStatusCode();
+            log.error("HTTP error while calling mock API: status={}, message={}", status.value(), ex.getMessage());
+
+            if (status.value() == HttpStatus.NOT_FOUND.value()) {
+                return EmployeeChanges.resyncRequired();
+            } else if (status.value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                throw new TooManyRequestsException(
+                        "Rate limit exceeded while fetching employee changes",
+                        ex,
+                        RetryAfter.from(ex.getResponseHeaders()));
+            } else {
+                throw new ExternalApiException("Error fetching employee changes from mock API: " + status, ex);
+            }
+        } catch (RestClientException ex) {
+            throw new ExternalApiException("Mock service unavailable:Failed to fetch employee changes", ex);
+        }
+    }
+
+    private static HttpEntity<Void> conditional(String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        if (etag != null) {
+            headers.setIfNoneMatch(etag);
+        }
+        return new HttpEntity<>(headers);
+    }
+
+    @Override
+    public long streamEmployees(Consumer<? super Employee> sink) {
+        String url = mockApiBaseUrl + "/employee/stream";
+        log.info("Calling  API: {} -start", url);
+
+        try {
+            Long delivered = restTemplate.execute(
+                    url,
+                    HttpMethod.GET,
+                    request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_NDJSON)),
+                    response -> readNdjson(response.getBody(), sink));
+            log.debug("Streamed {} employees", delivered);
+            return delivered == null ? 0 : delivered;
+        } catch (HttpStatusCodeException ex) {
+            HttpStatusCode status = ex.getStatusCode();
+            log.error("HTTP error while calling mock API: status={}, message={}", status.value(), ex.getMessage());
+
+            if (status.value() == HttpStatus.NOT_FOUND.value()) {
+                return 0;
+            } else if (status.value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                throw new TooManyRequestsException(
+                        "Rate limit exceeded while fetching employees", ex, RetryAfter.from(ex.getResponseHeaders()));
+            } else {
+                throw new ExternalApiException("Error fetching employees from mock API: " + status, ex);
+            }
+        } catch (RestClientException ex) {
+            throw new ExternalApiException("Mock service unavailable:Failed to fetch employees", ex);
+        }
+    }
+
+    private long readNdjson(InputStream body, Consumer<? super Employee> sink) throws IOException {
+        long delivered = 0;
+        try (MappingIterator<Employee> employees =
+                objectMapper.readerFor(Employee.class).readValues(body)) {
+            while (employees.hasNextValue()) {
+                sink.accept(employees.nextValue());
+                delivered++;
+            }
+        }
+        return delivered;
+    }
+
+    @Override
+    public Optional<EmployeeAggregates> fetchAggregates() {
+        return fetchAggregate(
+                URI.create(mockApiBaseUrl + "/employee/aggregates"),
+                new ParameterizedTypeReference<Response<EmployeeAggregates>>() {});
+    }
+
+    @Override
+    public Optional<List<Employee>> fetchTopEarners(int limit) {
+        return fetchAggregate(
+                UriComponentsBuilder.fromHttpUrl(mockApiBaseUrl + "/employee/top-earners")
+                        .queryParam("limit", limit)
+                        .build()
+                        .toUri(),
+                new ParameterizedTypeReference<Response<List<Employee>>>() {});
+    }
+
+    /*
+     * Empty only for a 404, which means the mock API does not serve aggregates; a 2xx without data is an error.
+     */
+    private <T> Optional<T> fetchAggregate(URI url, ParameterizedTypeReference<Response<T>> type) {
+        log.info("Calling  API: {} -start", url);
+        Optional<T> data;
+        try {
+            ResponseEntity<Response<T>> response = restTemplate.exchange(url, HttpMethod.GET, null, type);
+            log.debug("Received aggregate: status={}", response.getStatusCode());
+            data = Optional.ofNullable(response.getBody()).map(Response::data);
+        } catch (HttpStatusCodeException ex) {
+            HttpStatusCode status = ex.getStatusCode();
+            log.error("HTTP error while calling mock API: status={}, message={}", status.value(), ex.getMessage());
+
+            if (status.value() == HttpStatus.NOT_FOUND.value()) {
+                return Optional.empty();
+            } else if (status.value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                throw new TooManyRequestsException(
+                        "Rate limit exceeded while fetching aggregates", ex, RetryAfter.from(ex.getResponseHeaders()));
+            } else {
+                throw new ExternalApiException("Error fetching aggregates from mock API: " + status, ex);
+            }
+        } catch (RestClientException ex) {
+            throw new ExternalApiException("Mock service unavailable:Failed to fetch aggregates", ex);
+        }
+        if (data.isEmpty()) {
+            throw new ExternalApiException("Mock API answered " + url.getPath() + " without data", null);
+        }
+        return data;
+    }
+
+    @Override
+    public Optional<Employee> fetchEmployeeById(String id) {
+        String url = mockApiBaseUrl + "/employee/{id}";
+        log.info("Calling  API: {} -start", url);
+        try {
+            ResponseEntity<Response<Employee>> response = restTemplate.exchange(
+                    url, HttpMethod.GET, null, new ParameterizedTypeReference<Response<Employee>>() {}, id);
+            log.debug("Received response: {}", response);
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                return Optional.ofNullable(response.getBody().data());
+            }
+
+        } catch (HttpClientErrorException.NotFound ex) {
+            throw new EmployeeNotFoundException("Employee with ID " + id + " not found");
+
+        } catch (HttpStatusCodeException ex) {
+            HttpStatusCode status = ex.getStatusCode();
+
+            if (status.value() == HttpStatus.NOT_FOUND.value()) {
+                throw new EmployeeNotFoundException("Employee with ID " + id + " not found");
+            } else if (status.value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                throw new TooManyRequestsException("Rate limit exceeded", ex, RetryAfter.from(ex.getResponseHeaders()));
+            } else {
+                throw new ExternalApiException("HTTP error from mock API: " + status, ex);
+            }
+
+        } catch (RestClientException ex) {
+            throw new ExternalApiException("Mock service unavailable:Failed to fetch employee data", ex);
+        }
+
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean deleteEmployeeByName(String name) {
+        String url = mockApiBaseUrl + "/employee";
+        log.info("Calling  API: {} -start", url);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        Map<String, String> body = new HashMap<>();
+        body.put("name", name);
+
+        HttpEntity<Map<String, String>> requestEntity = new HttpEntity<>(body, headers);
+
+        try {
+            ResponseEntity<String> response =
+                    restTemplate.exchange(url, HttpMethod.DELETE, requestEntity, String.class);
+            log.debug("Received response: {}", response);
+            return response.getStatusCode().is2xxSuccessful();
+
+        } catch (HttpClientErrorException.NotFound ex) {
+            throw new EmployeeNotFoundException("Employee with name " + name + " not found");
+
+        } catch (HttpStatusCodeException ex) {
+            HttpStatusCode status = ex.getStatusCode();
+
+            if (status.value() == HttpStatus.NOT_FOUND.value()) {
+                throw new EmployeeNotFoundException("Employee with name " + name + " not found");
+            } else if (status.value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                throw new TooManyRequestsException("Rate limit exceeded", ex, RetryAfter.from(ex.getResponseHeaders()));
+            } else {
+                throw new ExternalApiException("HTTP error from mock API: " + status, ex);
+            }
+
+        } catch (RestClientException ex) {
+            throw new ExternalApiException("Mock service unavailable:Failed to delete employee name:" + name, ex);
+        }
+    }
+
+    @Override
+    public Optional<Employee> createEmployee(CreateEmployeeInput request) {
+        String url = mockApiBaseUrl + "/employee";
+        log.info("Calling  API: {} -start", url);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        HttpEntity<CreateEmployeeInput> httpEntity = new HttpEntity<>(request, headers);
+        try {
+            ResponseEntity<Response<Employee>> response = restTemplate.exchange(
+                    url, HttpMethod.POST, httpEntity, new ParameterizedTypeReference<Response<Employee>>() {});
+            log.debug("Received response: {}", response);
+            return Optional.ofNullable(response.getBody()).map(Response::data);
+        } catch (HttpClientErrorException.NotFound ex) {
+            // Employee not found
+            throw new EmployeeNotCreatedException("Failed to create employee", request, ex);
+
+        } catch (HttpStatusCodeException ex) {
+            HttpStatusCode status = ex.getStatusCode();
+
+            if (status.value() == HttpStatus.NOT_FOUND.value()) {
+                throw new EmployeeNotCreatedException("Failed to create employee", request, ex);
+            } else if (status.value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                throw new TooManyRequestsException("Rate limit exceeded", ex, RetryAfter.from(ex.getResponseHeaders()));
+            } else {
+                throw new ExternalApiException("HTTP error from mock API: " + status, ex);
+            }
+
+        } catch (RestClientException ex) {
+            throw new ExternalApiException(
+                    "Mock service unavailable:Failed to create employee name: :" + request.getName(), ex);
+        }
+    }
+
+    @Override
+    public List<Employee> createEmployees(List<CreateEmployeeInput> requests) {
+        return exchangeBatch(
+                HttpMethod.POST,
+                "/employee/batch",
+                Map.of("employees", requests),
+                new ParameterizedTypeReference<Response<List<Employee>>>() {},
+                "Failed to create employees");
+    }
+
+    @Override
+    public List<Employee> deleteEmployeesById(List<String> ids) {
+        return exchangeBatch(
+                HttpMethod.DELETE,
+                "/employee/batch/ids",
+                Map.of("ids", ids),
+                new ParameterizedTypeReference<Response<List<Employee>>>() {},
+                "Failed to delete employees");
+    }
+
+    @Override
+    public List<Employee> fetchEmployeesByIds(List<String> ids) {
+        return exchangeBatch(
+                HttpMethod.POST,
+                "/employee/batch/lookup",
+                Map.of("ids", ids),
+                new ParameterizedTypeReference<Response<List<Employee>>>() {},
+                "Failed to fetch employees");
+    }
+
+    private <T> List<T> exchangeBatch(
+            HttpMethod method,
+            String path,
+            Map<String, ?> body,
+            ParameterizedTypeReference<Response<List<T>>> type,
+            String failure) {
+        String url = mockApiBaseUrl + path;
+        log.info("Calling  API: {} -start", url);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        try {
+            ResponseEntity<Response<List<T>>> response =
+                    restTemplate.exchange(url, method, new HttpEntity<>(body, headers), type);
+            log.debug("Received batch response: status={}", response.getStatusCode());
+            return Optional.ofNullable(response.getBody()).map(Response::data).orElse(List.of());
+        } catch (HttpStatusCodeException ex) {
+            HttpStatusCode status = ex.getStatusCode();
+            log.error("HTTP error while calling mock API: status={}, message={}", status.value(), ex.getMessage());
+
+            if (status.value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                throw new TooManyRequestsException("Rate limit exceeded", ex, RetryAfter.from(ex.getResponseHeaders()));
+            } else {
+                throw new ExternalApiException("HTTP error from mock API: " + status, ex);
+            }
+        } catch (RestClientException ex) {
+            throw new ExternalApiException("Mock service unavailable:" + failure, ex);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.reliaquest.api.client;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Parses the {@code Retry-After} header of a 429 response, in either of its forms: delay seconds or an HTTP date, and
+ * formats the delay seconds the api sends its own clients.
+ */
+public final class RetryAfter {
+
+    private RetryAfter() {}
+
+    /**
+     * The advised delay, or null when the header is missing or unparseable. Dates in the past give a zero delay.
+     */
+    static Duration from(HttpHeaders headers) {
+        if (headers == null) {
+            return null;
+        }
+        String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        value = value.trim();
+        try {
+            long seconds = Long.parseLong(value);
+            return seconds < 0 ? null : Duration.ofSeconds(seconds);
+        } catch (NumberFormatException ignored) {
+            // not delay-seconds, try the HTTP-date form
+        }
+        try {
+            Instant at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME)
+                    .toInstant();
+            Duration delay = Duration.between(Instant.now(), at);
+            return delay.isNegative() ? Duration.ZERO : delay;
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Delay seconds for a {@code Retry-After} header, rounded up so a client that waits exactly this long is not
+     * refused again.
+     */
+    public static String toHeaderSeconds(Duration delay) {
+        return Long.toString((delay.toMillis() + 999) / 1000);
+    }
+}
@@ -1,17 +1,312 @@
 package com.reliaquest.api.config;
 
+import com.reliaquest.api.upstream.Bulkhead;
+import com.reliaquest.api.upstream.CircuitBreaker;
+import com.reliaquest.api.upstream.HedgedRetrier;
+import com.reliaquest.api.upstream.QuotaScheduler;
+import com.reliaquest.api.upstream.RetryBudget;
+import com.reliaquest.api.upstream.UpstreamMetrics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Slf4j
 @Configuration
 public class AppConfig implements WebMvcConfigurer {
 
+    /*
+     * With mock.api.http.smile the Smile converter goes first, so responses are requested as binary Smile ahead of
+     * JSON. A server that cannot produce Smile answers with JSON, which the JSON converter still reads; request bodies
+     * are always sent as JSON because the client sets that content type explicitly.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(
+            ClientHttpRequestFactory upstreamRequestFactory, @Value("${mock.api.http.smile:true}") boolean smile) {
+        RestTemplate restTemplate = new RestTemplate(upstreamRequestFactory);
+        if (smile) {
+            restTemplate.getMessageConverters().add(0, new MappingJackson2SmileHttpMessageConverter());
+        }
+        return restTemplate;
+    }
+
+    /*
+     * The JDK client unless mock.api.http.pooled is set. On loopback it beat the pooled client in
+     * UpstreamClientBenchmark at 16 and 40 threads, with the pool sized from the bulkheads; it keeps up to five idle
+     * connections to the mock API alive (the http.maxConnections system property) and opens more when busy.
+     */
+    @Bean
+    public ClientHttpRequestFactory upstreamRequestFactory(
+            ObjectProvider<CloseableHttpClient> upstreamHttpClient,
+            @Value("${mock.api.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${mock.api.http.read-timeout:5s}") Duration readTimeout) {
+        CloseableHttpClient pooled = upstreamHttpClient.getIfAvailable();
+        if (pooled != null) {
+            return new HttpComponentsClientHttpRequestFactory(pooled);
+        }
+        SimpleClientHttpRequestFactory simple = new SimpleClientHttpRequestFactory();
+        simple.setConnectTimeout(connectTimeout);
+        simple.setReadTimeout(readTimeout);
+        return simple;
+    }
+
+    /*
+     * Pooled keep-alive client for the mock API. Connections are reused across requests and idle ones are evicted
+     * before the server side closes them.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "mock.api.http.pooled", havingValue = "true")
+    public CloseableHttpClient upstreamHttpClient(
+            @Value("${mock.api.http.max-connections-total:50}") int maxConnectionsTotal,
+            @Value("${mock.api.http.max-connections-per-route:0}") int maxConnectionsPerRoute,
+            @Value("${mock.api.bulkhead.reads.max-concurrent:32}") int maxConcurrentReads,
+            @Value("${mock.api.bulkhead.writes.max-concurrent:8}") int maxConcurrentWrites,
+            @Value("${mock.api.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${mock.api.http.read-timeout:5s}") Duration readTimeout,
+            @Value("${mock.api.http.connection-request-timeout:1s}") Duration connectionRequestTimeout,
+            @Value("${mock.api.http.keep-alive:30s}") Duration keepAlive,
+            @Value("${mock.api.http.idle-eviction:30s}") Duration idleEviction) {
+        if (maxConnectionsPerRoute <= 0) {
+            maxConnectionsPerRoute = upstreamConnectionsPerRoute(maxConcurrentReads, maxConcurrentWrites);
+        }
+        // the mock API is the only route, so a smaller total would cap the route below its size
+        maxConnectionsTotal = Math.max(maxConnectionsTotal, maxConnectionsPerRoute);
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnectionsTotal)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout.toMillis()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+                        .build())
+                .build();
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeout.toMillis()))
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+                .build();
+        log.info(
+                "Upstream HTTP pool: maxTotal={}, maxPerRoute={}, connectTimeout={}, readTimeout={}, keepAlive={}",
+                maxConnectionsTotal,
+                maxConnectionsPerRoute,
+                connectTimeout,
+                readTimeout,
+                keepAlive);
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofMilliseconds(keepAlive.toMillis()))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEviction.toMillis()))
+                .build();
+    }
+
+    /**
+     * Connections the bulkheads can have in use at once: one per read and write slot. A hedge takes a read slot of its
+     * own and keeps it until both attempts are done, so hedging does not add to this. A smaller pool makes calls the
+     * bulkhead admitted queue for a connection instead.
+     */
+    public static int upstreamConnectionsPerRoute(int maxConcurrentReads, int maxConcurrentWrites) {
+        return maxConcurrentReads + maxConcurrentWrites;
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider mockApiConnectionProvider(
+            @Value("${mock.api.http.max-connections-total:50}") int maxConnectionsTotal,
+            @Value("${mock.api.http.connection-request-timeout:1s}") Duration connectionRequestTimeout,
+            @Value("${mock.api.http.idle-eviction:30s}") Duration idleEviction) {
+        return ConnectionProvider.builder("mock-api")
+                .maxConnections(maxConnectionsTotal)
+                .pendingAcquireTimeout(connectionRequestTimeout)
+                .maxIdleTime(idleEviction)
+                .evictInBackground(idleEviction)
+                .build();
+    }
+
+    /*
+     * Client for the mock API's server-sent event stream on Reactor Netty, with the RestTemplate's timeouts. Other
+     * upstream calls block on the RestTemplate; virtual threads (spring.threads.virtual.enabled) make that cheap.
+     */
+    @Bean
+    public WebClient mockApiWebClient(
+            WebClient.Builder webClientBuilder,
+            ConnectionProvider mockApiConnectionProvider,
+            @Value("${mock.api.base-url}") String mockApiBaseUrl,
+            @Value("${mock.api.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${mock.api.http.read-timeout:5s}") Duration readTimeout,
+            @Value("${mock.api.http.max-in-memory-size:16MB}") DataSize maxInMemorySize) {
+        HttpClient httpClient = HttpClient.create(mockApiConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout)
+                .compress(true);
+        return webClientBuilder
+                .baseUrl(mockApiBaseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) maxInMemorySize.toBytes()))
+                .build();
+    }
+
+    @Bean
+    public UpstreamMetrics upstreamMetrics(MeterRegistry meterRegistry) {
+        return new UpstreamMetrics(meterRegistry);
+    }
+
+    /*
+     * State is exported as mock.api.circuit.state (0 closed, 1 half-open, 2 open) and every change is counted in
+     * mock.api.circuit.transitions.
+     */
+    @Bean
+    public CircuitBreaker upstreamCircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${mock.api.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${mock.api.circuit-breaker.minimum-calls:5}") int minimumCalls,
+            @Value("${mock.api.circuit-breaker.failure-rate-threshold:50}") int failureRateThreshold,
+            @Value("${mock.api.circuit-breaker.open-duration:10s}") Duration openDuration) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(
+                "mock-api", windowSize, minimumCalls, failureRateThreshold, openDuration, (from, to) -> meterRegistry
+                        .counter("mock.api.circuit.transitions", "from", from.name(), "to", to.name())
+                        .increment());
+        Gauge.builder("mock.api.circuit.state", circuitBreaker, breaker -> breaker.state()
+                        .ordinal())
+                .description("Mock API circuit state: 0 closed, 1 half-open, 2 open")
+                .register(meterRegistry);
+        return circuitBreaker;
+    }
+
+    /*
+     * Separate bulkheads for reads and writes, so slow creates and deletes cannot hold every thread that reads need.
+     */
+    @Bean
+    public Bulkhead upstreamReadBulkhead(
+            MeterRegistry meterRegistry,
+            @Value("${mock.api.bulkhead.reads.max-concurrent:32}") int maxConcurrent,
+            @Value("${mock.api.bulkhead.max-wait:100ms}") Duration maxWait) {
+        return bindBulkhead(meterRegistry, new Bulkhead("read", maxConcurrent, maxWait));
+    }
+
+    @Bean
+    public Bulkhead upstreamWriteBulkhead(
+            MeterRegistry meterRegistry,
+            @Value("${mock.api.bulkhead.writes.max-concurrent:8}") int maxConcurrent,
+            @Value("${mock.api.bulkhead.max-wait:100ms}") Duration maxWait) {
+        return bindBulkhead(meterRegistry, new Bulkhead("write", maxConcurrent, maxWait));
+    }
+
+    private static Bulkhead bindBulkhead(MeterRegistry meterRegistry, Bulkhead bulkhead) {
+        Gauge.builder("mock.api.bulkhead.in.flight", bulkhead, Bulkhead::inFlight)
+                .tag("bulkhead", bulkhead.name())
+                .register(meterRegistry);
+        FunctionCounter.builder("mock.api.bulkhead.rejections", bulkhead, Bulkhead::rejectedCount)
+                .tag("bulkhead", bulkhead.name())
+                .register(meterRegistry);
+        return bulkhead;
+    }
+
+    /*
+     * Retries and hedges share one budget: ratio of an extra attempt per read, holding at most max-balance. A read runs
+     * on the hedging executor so the caller can take whichever attempt answers first. On platform threads its pool has
+     * room for a primary and a hedge per read bulkhead slot and, when full, the read runs on the caller's thread
+     * unhedged.
+     */
+    @Bean
+    public RetryBudget upstreamRetryBudget(
+            MeterRegistry meterRegistry,
+            @Value("${mock.api.retry.budget.ratio:0.1}") double ratio,
+            @Value("${mock.api.retry.budget.max-balance:10}") int maxBalance) {
+        RetryBudget budget = new RetryBudget(ratio, maxBalance);
+        Gauge.builder("mock.api.retry.budget.balance", budget, RetryBudget::balance)
+                .description("Extra attempts the retry budget can still pay for")
+                .register(meterRegistry);
+        FunctionCounter.builder("mock.api.retry.budget.exhausted", budget, RetryBudget::refusedCount)
+                .description("Retries and hedges skipped because the retry budget was empty")
+                .register(meterRegistry);
+        return budget;
+    }
+
+    @Bean
+    public HedgedRetrier upstreamHedgedRetrier(
+            MeterRegistry meterRegistry,
+            RetryBudget upstreamRetryBudget,
+            Bulkhead upstreamReadBulkhead,
+            @Value("${mock.api.bulkhead.reads.max-concurrent:32}") int maxConcurrentReads,
+            @Value("${mock.api.retry.max-retries:2}") int maxRetries,
+            @Value("${mock.api.retry.base-delay:50ms}") Duration baseDelay,
+            @Value("${mock.api.retry.max-delay:1s}") Duration maxDelay,
+            @Value("${mock.api.hedging.enabled:true}") boolean hedging,
+            @Value("${mock.api.hedging.min-delay:20ms}") Duration minHedgeDelay,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        HedgedRetrier retrier = new HedgedRetrier(
+                upstreamRetryBudget,
+                maxRetries,
+                baseDelay,
+                maxDelay,
+                hedging ? hedgeExecutor(maxConcurrentReads, virtualThreads) : null,
+                upstreamReadBulkhead,
+                minHedgeDelay);
+        FunctionCounter.builder("mock.api.upstream.retries", retrier, HedgedRetrier::retryCount)
+                .description("Mock API reads retried after a 5xx or I/O failure")
+                .register(meterRegistry);
+        FunctionCounter.builder("mock.api.upstream.hedges", retrier, HedgedRetrier::hedgeCount)
+                .description("Mock API reads that got a second, hedged attempt")
+                .register(meterRegistry);
+        FunctionCounter.builder("mock.api.upstream.hedge.wins", retrier, HedgedRetrier::hedgeWinCount)
+                .description("Hedged reads answered by the second attempt")
+                .register(meterRegistry);
+        return retrier;
+    }
+
+    /*
+     * Not a bean: an Executor bean would replace Spring Boot's application task executor. With virtual threads every
+     * attempt gets a new one and the read bulkhead is the only bound. Otherwise idle pool threads are daemons and time
+     * out, so nothing needs shutting down.
+     */
+    private static Executor hedgeExecutor(int maxConcurrentReads, boolean virtualThreads) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("upstream-read-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("upstream-read-");
+        threadFactory.setDaemon(true);
+        return new ThreadPoolExecutor(
+                0, 2 * maxConcurrentReads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), threadFactory);
+    }
+
+    @Bean
+    public QuotaScheduler quotaScheduler(
+            @Value("${mock.api.quota.initial-window:30s}") Duration initialWindow,
+            @Value("${mock.api.quota.probe-interval:5s}") Duration probeInterval,
+            @Value("${mock.api.quota.max-wait:2s}") Duration maxWait) {
+        return new QuotaScheduler(initialWindow, probeInterval, maxWait);
     }
 }
@@ -0,0 +1,67 @@
+package com.reliaquest.api.controller;
+
+import com.reliaquest.api.model.CreateEmployeeInput;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.service.EmployeeService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Batch variants of the employee endpoints. Each upstream request carries up to {@code mock.api.batch-size}
+ * employees, so a batch of hundreds costs one unit of the mock API quota instead of hundreds.
+ *
+ * <p>A batch carries at most {@value #MAX_SIZE} items, the mock API's own limit per request, and every employee to
+ * create must satisfy the {@link CreateEmployeeInput} constraints; anything else is answered 400 before the upstream is
+ * called. With the default batch size a batch is therefore a single upstream request and applied whole or not at all;
+ * see {@link EmployeeService#createEmployees} for smaller batch sizes.
+ */
+@RestController
+@RequestMapping("/api/employees/batch")
+@Slf4j
+public class EmployeeBatchController {
+
+    static final int MAX_SIZE = 1000;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @PostMapping()
+    public ResponseEntity<List<Employee>> createEmployees(
+            @RequestBody @Size(max = MAX_SIZE) List<@Valid @NotNull CreateEmployeeInput> employeeInputs) {
+        if (employeeInputs.isEmpty()) {
+            return ResponseEntity.badRequest().body(List.of());
+        }
+        log.info("Calling  API: createEmployees -start");
+        List<Employee> created = employeeService.createEmployees(employeeInputs);
+        log.info("Calling  API: createEmployees -end");
+        return ResponseEntity.ok(created);
+    }
+
+    @PostMapping("/lookup")
+    public ResponseEntity<List<Employee>> getEmployeesByIds(@RequestBody @Size(max = MAX_SIZE) List<String> ids) {
+        if (ids.isEmpty()) {
+            return ResponseEntity.badRequest().body(List.of());
+        }
+        log.info("Calling  API: getEmployeesByIds -start");
+        List<Employee> employees = employeeService.getEmployeesByIds(ids);
+        log.info("Calling  API: getEmployeesByIds -end");
+        return ResponseEntity.ok(employees);
+    }
+
+    @DeleteMapping()
+    public ResponseEntity<List<String>> deleteEmployeesById(@RequestBody @Size(max = MAX_SIZE) List<String> ids) {
+        if (ids.isEmpty()) {
+            return ResponseEntity.badRequest().body(List.of());
+        }
+        log.info("Calling  API: deleteEmployeesById -start");
+        List<String> deleted = employeeService.deleteEmployeesById(ids);
+        log.info("Calling  API: deleteEmployeesById -end");
+        return ResponseEntity.ok(deleted);
+    }
+}
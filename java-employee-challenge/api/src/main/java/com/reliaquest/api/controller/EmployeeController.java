@@ -67,44 +67,33 @@ public class EmployeeController implements IEmployeeController<Employee, CreateE
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(List.of());
         }
 
-        List<Employee> matched = allEmployees.stream()
-                .filter(e -> e.getEmployeeName() != null
-                        && e.getEmployeeName().toLowerCase().contains(searchString.toLowerCase()))
-                .toList();
+        List<Employee> matched = employeeService.searchEmployeesByName(searchString);
         log.info("Calling  API: getEmployeesByNameSearch -end");
         return ResponseEntity.ok(matched);
     }
 
     @Override
     public ResponseEntity<Integer> getHighestSalaryOfEmployees() {
-        log.info("Calling  API: getEmployeesByNameSearch -start");
-        List<Employee> allEmployees = employeeService.fetchEmployeesFromMockApi();
+        log.info("Calling  API: getHighestSalaryOfEmployees -start");
+        OptionalInt highestSalary = employeeService.findHighestSalary();
 
-        if (allEmployees.isEmpty()) {
+        if (highestSalary.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
         }
 
-        Integer highestSalary =
-                allEmployees.stream().mapToInt(e -> e.getEmployeeSalary()).max().orElse(0);
         log.info("Calling  API: getHighestSalaryOfEmployees -end");
-        return ResponseEntity.ok(highestSalary);
+        return ResponseEntity.ok(highestSalary.getAsInt());
     }
 
     @Override
     public ResponseEntity<List<String>> getTopTenHighestEarningEmployeeNames() {
         log.info("Calling  API: getTopTenHighestEarningEmployeeNames -start");
 
-        List<Employee> allEmployees = employeeService.fetchEmployeesFromMockApi();
+        List<String> top10Employees = employeeService.findTopEarningEmployeeNames(10);
 
-        if (allEmployees.isEmpty()) {
+        if (top10Employees.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(List.of());
         }
-
-        List<String> top10Employees = allEmployees.stream()
-                .sorted(Comparator.comparingInt(Employee::getEmployeeSalary).reversed())
-                .limit(10)
-                .map(Employee::getEmployeeName)
-                .toList();
         log.info("Calling  API: getTopTenHighestEarningEmployeeNames -end");
 
         return ResponseEntity.ok(top10Employees);
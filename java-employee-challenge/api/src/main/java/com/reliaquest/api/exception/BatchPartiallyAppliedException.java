@@ -0,0 +1,23 @@
+package com.reliaquest.api.exception;
+
+import java.util.List;
+
+/**
+ * A batch spanning several upstream requests failed after some of them had already been applied. The cause is the
+ * failure of the first request that did not go through; everything before it stays applied.
+ */
+public class BatchPartiallyAppliedException extends RuntimeException {
+    private final List<?> applied;
+
+    public BatchPartiallyAppliedException(String message, List<?> applied, RuntimeException cause) {
+        super(message, cause);
+        this.applied = List.copyOf(applied);
+    }
+
+    /**
+     * What the upstream applied before the failure: the created or deleted employees, in request order.
+     */
+    public List<?> getApplied() {
+        return applied;
+    }
+}
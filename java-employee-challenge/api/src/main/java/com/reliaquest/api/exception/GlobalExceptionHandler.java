@@ -1,11 +1,15 @@
 package com.reliaquest.api.exception;
 
+import com.reliaquest.api.client.RetryAfter;
 import com.reliaquest.api.model.Response;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 @Slf4j
 @ControllerAdvice
@@ -32,7 +36,44 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(TooManyRequestsException.class)
     public ResponseEntity<Object> handleTooManyRequestsException(TooManyRequestsException ex) {
         log.error("Rate limit exceeded", ex);
-        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Response.error(ex.getMessage()));
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS);
+        ex.getRetryAfter()
+                .ifPresent(
+                        retryAfter -> response.header(HttpHeaders.RETRY_AFTER, RetryAfter.toHeaderSeconds(retryAfter)));
+        return response.body(Response.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<Object> handleUpstreamUnavailableException(UpstreamUnavailableException ex) {
+        log.warn("Upstream unavailable: {}", ex.getMessage());
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE);
+        ex.getRetryAfter()
+                .ifPresent(
+                        retryAfter -> response.header(HttpHeaders.RETRY_AFTER, RetryAfter.toHeaderSeconds(retryAfter)));
+        return response.body(Response.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(BatchPartiallyAppliedException.class)
+    public ResponseEntity<Object> handleBatchPartiallyApplied(BatchPartiallyAppliedException ex) {
+        log.error("Batch partially applied", ex);
+        ResponseEntity<Object> failure;
+        if (ex.getCause() instanceof TooManyRequestsException tooManyRequests) {
+            failure = handleTooManyRequestsException(tooManyRequests);
+        } else if (ex.getCause() instanceof UpstreamUnavailableException unavailable) {
+            failure = handleUpstreamUnavailableException(unavailable);
+        } else {
+            failure = ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
+        }
+        // the status of the request that failed, with what the earlier ones applied
+        return ResponseEntity.status(failure.getStatusCode())
+                .headers(failure.getHeaders())
+                .body(new Response<>(ex.getApplied(), Response.Status.ERROR, ex.getMessage()));
+    }
+
+    @ExceptionHandler({MethodArgumentNotValidException.class, HandlerMethodValidationException.class})
+    public ResponseEntity<Object> handleInvalidRequest(Exception ex) {
+        log.warn("Invalid request: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Response.error(ex.getMessage()));
     }
 
     @ExceptionHandler(EmployeeNotCreatedException.class)
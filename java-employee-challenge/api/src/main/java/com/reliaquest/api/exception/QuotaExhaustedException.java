@@ -0,0 +1,13 @@
+package com.reliaquest.api.exception;
+
+import java.time.Duration;
+
+/**
+ * The mock API was not called because the learned quota is used up; the quota scheduler refused the call itself.
+ */
+public class QuotaExhaustedException extends TooManyRequestsException {
+
+    public QuotaExhaustedException(String message, Throwable cause, Duration retryAfter) {
+        super(message, cause, retryAfter);
+    }
+}
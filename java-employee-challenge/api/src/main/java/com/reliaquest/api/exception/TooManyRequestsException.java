@@ -1,7 +1,24 @@
 package com.reliaquest.api.exception;
 
+import java.time.Duration;
+import java.util.Optional;
+
 public class TooManyRequestsException extends RuntimeException {
+    private final Duration retryAfter;
+
     public TooManyRequestsException(String message, Throwable cause) {
+        this(message, cause, null);
+    }
+
+    public TooManyRequestsException(String message, Throwable cause, Duration retryAfter) {
         super(message, cause);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * How long the upstream asked us to wait, from its {@code Retry-After} header, when it sent one.
+     */
+    public Optional<Duration> getRetryAfter() {
+        return Optional.ofNullable(retryAfter);
     }
 }
@@ -0,0 +1,23 @@
+package com.reliaquest.api.exception;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * The mock API was not called because its circuit is open or the bulkhead for the operation is full.
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public UpstreamUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * When the call is worth retrying, if known.
+     */
+    public Optional<Duration> getRetryAfter() {
+        return Optional.ofNullable(retryAfter);
+    }
+}
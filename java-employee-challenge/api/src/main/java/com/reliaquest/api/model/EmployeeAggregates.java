@@ -0,0 +1,9 @@
+package com.reliaquest.api.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Employee count and highest salary as computed by the mock API. {@code highestSalary} is null when there are no
+ * employees.
+ */
+public record EmployeeAggregates(int count, @JsonProperty("highest_salary") Integer highestSalary) {}
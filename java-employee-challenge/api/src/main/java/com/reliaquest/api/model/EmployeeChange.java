@@ -0,0 +1,12 @@
+package com.reliaquest.api.model;
+
+/**
+ * One create or delete from the mock API's change feed. Deletes carry the removed employee.
+ */
+public record EmployeeChange(long version, Type type, Employee employee) {
+
+    public enum Type {
+        CREATED,
+        DELETED
+    }
+}
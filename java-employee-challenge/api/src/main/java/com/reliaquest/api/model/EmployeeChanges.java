@@ -0,0 +1,14 @@
+package com.reliaquest.api.model;
+
+import java.util.List;
+
+/**
+ * Changes since an entity tag, oldest first, and the tag they bring the list to. {@code resync} means the mock API no
+ * longer has the changes and the list has to be reloaded.
+ */
+public record EmployeeChanges(List<EmployeeChange> changes, boolean resync, String etag) {
+
+    public static EmployeeChanges resyncRequired() {
+        return new EmployeeChanges(List.of(), true, null);
+    }
+}
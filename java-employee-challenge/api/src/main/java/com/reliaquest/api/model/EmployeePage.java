@@ -0,0 +1,9 @@
+package com.reliaquest.api.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+/**
+ * One page of the mock API's employee list. {@code nextCursor} is null on the last page.
+ */
+public record EmployeePage(List<Employee> employees, @JsonProperty("next_cursor") String nextCursor) {}
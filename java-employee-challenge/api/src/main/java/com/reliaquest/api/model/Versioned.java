@@ -0,0 +1,6 @@
+package com.reliaquest.api.model;
+
+/**
+ * A response body together with the entity tag it was served with. {@code etag} is null when the mock API sent none.
+ */
+public record Versioned<T>(T data, String etag) {}
@@ -1,159 +1,522 @@
 package com.reliaquest.api.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.cache.EmployeeCache;
+import com.reliaquest.api.cache.NegativeCache;
+import com.reliaquest.api.cache.TopEarners;
+import com.reliaquest.api.client.EmployeeClient;
+import com.reliaquest.api.client.EmployeeEventStream;
+import com.reliaquest.api.client.EmployeePageIterator;
 import com.reliaquest.api.exception.*;
 import com.reliaquest.api.model.CreateEmployeeInput;
 import com.reliaquest.api.model.Employee;
-import com.reliaquest.api.model.Response;
+import com.reliaquest.api.model.EmployeeAggregates;
+import com.reliaquest.api.model.EmployeeChange;
+import com.reliaquest.api.model.EmployeeChanges;
+import com.reliaquest.api.model.EmployeePage;
+import com.reliaquest.api.model.Versioned;
+import com.reliaquest.api.upstream.Bulkhead;
+import com.reliaquest.api.upstream.CircuitBreaker;
+import com.reliaquest.api.upstream.HedgedRetrier;
+import com.reliaquest.api.upstream.QuotaScheduler;
+import com.reliaquest.api.upstream.SingleFlight;
+import com.reliaquest.api.upstream.UpstreamMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
 import java.util.*;
 import java.util.Optional;
+import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.*;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.*;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 
 @Slf4j
 @Service
 public class EmployeeService {
 
-    @Value("${mock.api.base-url}")
-    private String mockApiBaseUrl;
+    private static final String ALL_EMPLOYEES = "all";
+
+    @Value("${mock.api.cache.ttl:30s}")
+    private Duration cacheTtl;
+
+    @Value("${mock.api.cache.negative-ttl:5s}")
+    private Duration negativeCacheTtl;
+
+    @Value("${mock.api.cache.deltas:true}")
+    private boolean cacheDeltas;
+
+    @Value("${mock.api.events.enabled:true}")
+    private boolean eventsEnabled;
+
+    @Value("${mock.api.events.idle-timeout:45s}")
+    private Duration eventsIdleTimeout;
+
+    @Value("${mock.api.events.min-reconnect-delay:1s}")
+    private Duration eventsMinReconnectDelay;
+
+    @Value("${mock.api.events.max-reconnect-delay:30s}")
+    private Duration eventsMaxReconnectDelay;
+
+    @Value("${mock.api.events.batch-size:256}")
+    private int eventsBatchSize;
+
+    @Value("${mock.api.events.batch-window:50ms}")
+    private Duration eventsBatchWindow;
+
+    @Value("${mock.api.page-size:0}")
+    private int pageSize;
+
+    @Value("${mock.api.stream-cold-aggregates:true}")
+    private boolean streamColdAggregates;
+
+    // switched off for the rest of the run when the mock API turns out not to serve aggregates
+    @Value("${mock.api.server-aggregates:true}")
+    private volatile boolean serverAggregates;
+
+    @Value("${mock.api.batch-size:1000}")
+    private int batchSize;
+
+    @Autowired
+    private EmployeeClient employeeClient;
+
+    @Autowired
+    private TaskExecutor taskExecutor;
+
+    @Autowired
+    private QuotaScheduler quotaScheduler;
+
+    @Autowired
+    private UpstreamMetrics upstreamMetrics;
+
+    @Autowired
+    private CircuitBreaker upstreamCircuitBreaker;
+
+    @Autowired
+    private Bulkhead upstreamReadBulkhead;
+
+    @Autowired
+    private Bulkhead upstreamWriteBulkhead;
+
+    @Autowired
+    private HedgedRetrier upstreamHedgedRetrier;
+
+    @Autowired
+    private WebClient mockApiWebClient;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final SingleFlight<String, Optional<Versioned<List<Employee>>>> employeeListCalls =
+            new SingleFlight<>("GET /employee");
+    private final SingleFlight<String, Optional<Employee>> employeeByIdCalls = new SingleFlight<>("GET /employee/{id}");
+    private final SingleFlight<Integer, TopEarners> topEarnerStreams = new SingleFlight<>("GET /employee/stream");
+    private final SingleFlight<String, Optional<EmployeeAggregates>> aggregateCalls =
+            new SingleFlight<>("GET /employee/aggregates");
+    private final SingleFlight<Integer, Optional<List<Employee>>> topEarnerCalls =
+            new SingleFlight<>("GET /employee/top-earners");
+
+    private EmployeeCache employeeCache;
+    private EmployeeEventStream employeeEvents;
+    private NegativeCache<String> notFoundIds;
+
+    @PostConstruct
+    void initCache() {
+        List.of(employeeListCalls, employeeByIdCalls, topEarnerStreams, aggregateCalls, topEarnerCalls)
+                .forEach(calls -> calls.bindTo(meterRegistry));
+        notFoundIds = new NegativeCache<>(negativeCacheTtl, 10_000);
+        EmployeeCache.Loader loader =
+                etag -> employeeListCalls.execute(etag == null ? ALL_EMPLOYEES : etag, () -> loadEmployees(etag));
+        employeeCache = cacheDeltas
+                ? EmployeeCache.withChangeFeed(loader, this::fetchChangesSince, cacheTtl, taskExecutor)
+                : EmployeeCache.revalidating(loader, cacheTtl, taskExecutor);
+        if (eventsEnabled) {
+            employeeEvents = new EmployeeEventStream(
+                    mockApiWebClient,
+                    quotaScheduler,
+                    objectMapper,
+                    new CacheUpdater(),
+                    eventsIdleTimeout,
+                    eventsMinReconnectDelay,
+                    eventsMaxReconnectDelay,
+                    eventsBatchSize,
+                    eventsBatchWindow);
+            employeeEvents.start();
+        }
+    }
+
+    @PreDestroy
+    void closeEvents() {
+        if (employeeEvents != null) {
+            employeeEvents.close();
+        }
+    }
+
+    /*
+     * Keeps the snapshot current from pushed events. While the stream is live the cache stops polling, so freshness
+     * costs no upstream requests beyond the one long-lived connection; when it drops, TTL refreshes resume until the
+     * stream is back.
+     */
+    private class CacheUpdater implements EmployeeEventStream.Listener {
+
+        @Override
+        public String lastEventId() {
+            return employeeCache.etag();
+        }
+
+        @Override
+        public void onChanges(List<EmployeeChange> changes, String etag) {
+            employeeCache.applyChanges(changes, etag);
+        }
+
+        @Override
+        public void onLive(boolean live) {
+            employeeCache.setLive(live);
+        }
+
+        @Override
+        public void onResync() {
+            employeeCache.reload();
+        }
+    }
+
+    /*
+     * Every mock API call goes through the circuit breaker, the bulkhead for its kind, the quota scheduler and is timed
+     * per call and outcome. Reads and writes have separate bulkheads, so slow creates cannot take every slot from
+     * reads. A call refused before it reaches the upstream fails with UpstreamUnavailableException (503) and is neither
+     * timed nor counted against the circuit; cached reads keep serving the last good list meanwhile.
+     *
+     * Reads are idempotent, so they are also hedged and retried within the retry budget; every attempt passes the quota
+     * scheduler on its own. Creates and deletes are sent exactly once.
+     */
+    private <T> T readUpstream(String call, Supplier<T> request) {
+        return callUpstream(
+                upstreamReadBulkhead, () -> upstreamHedgedRetrier.execute(call, () -> attempt(call, request)));
+    }
+
+    // feeds its collector while parsing, so a second attempt would count the same employees twice
+    private <T> T streamUpstream(String call, Supplier<T> request) {
+        return callUpstream(upstreamReadBulkhead, () -> attempt(call, request));
+    }
+
+    private <T> T writeUpstream(String call, Supplier<T> request) {
+        return callUpstream(upstreamWriteBulkhead, () -> attempt(call, request));
+    }
+
+    private <T> T callUpstream(Bulkhead bulkhead, Supplier<T> call) {
+        return upstreamCircuitBreaker.execute(() -> bulkhead.execute(call));
+    }
+
+    private <T> T attempt(String call, Supplier<T> request) {
+        return quotaScheduler.execute(() -> upstreamMetrics.record(call, request));
+    }
+
+    private Optional<Versioned<List<EmployeeChange>>> fetchChangesSince(String etag) {
+        EmployeeChanges changes = readUpstream("GET /employee/changes", () -> employeeClient.fetchChangesSince(etag));
+        return changes.resync() ? Optional.empty() : Optional.of(new Versioned<>(changes.changes(), changes.etag()));
+    }
 
+    /*
+     * By default (page size 0) the whole list comes in one response, one request against the upstream quota. With a
+     * page size it is paged through instead so no single response has to carry every employee, at the price of
+     * ceil(employees / page size) requests against the quota per load.
+     *
+     * Only the first request is conditional: the upstream tag covers the whole list, so a 304 there means the cached
+     * snapshot is current and no page is transferred. The later pages must be read in full, and if their tag differs
+     * from the first page's the list changed mid-walk; the result is then kept untagged so the next refresh reads it
+     * again instead of revalidating a mix of versions.
+     */
+    private Optional<Versioned<List<Employee>>> loadEmployees(String etag) {
+        if (pageSize <= 0) {
+            return readUpstream("GET /employee", () -> employeeClient.fetchEmployees(etag));
+        }
+        Optional<Versioned<EmployeePage>> first =
+                readUpstream("GET /employee?limit", () -> employeeClient.fetchEmployeePage(null, pageSize, etag));
+        if (first.isEmpty()) {
+            return Optional.empty();
+        }
+        String firstEtag = first.get().etag();
+        boolean[] consistent = {true};
+        List<Employee> employees = new ArrayList<>();
+        new EmployeePageIterator(
+                        (cursor, limit) -> {
+                            Versioned<EmployeePage> page = fetchEmployeePage(cursor, limit);
+                            consistent[0] &= Objects.equals(firstEtag, page.etag());
+                            return page.data();
+                        },
+                        pageSize,
+                        first.get().data())
+                .forEachRemaining(employees::add);
+        return Optional.of(new Versioned<>(employees, consistent[0] ? firstEtag : null));
+    }
+
+    private Versioned<EmployeePage> fetchEmployeePage(String cursor, int limit) {
+        return readUpstream("GET /employee?limit", () -> employeeClient.fetchEmployeePage(cursor, limit, null))
+                .orElseThrow(() -> new ExternalApiException("Mock API answered an unconditional page with 304", null));
+    }
+
+    /**
+     * Returns the cached employee snapshot. The first call loads it from the mock API; later calls never wait on the
+     * upstream, stale snapshots are refreshed in the background.
+     */
     public List<Employee> fetchEmployeesFromMockApi() {
-        String url = mockApiBaseUrl + "/employee";
-        log.info("Calling  API: {} -start", url);
+        return employeeCache.get();
+    }
 
-        try {
-            ResponseEntity<Response<List<Employee>>> response = restTemplate.exchange(
-                    url, HttpMethod.GET, null, new ParameterizedTypeReference<Response<List<Employee>>>() {});
-            log.debug("Received response: {}", response);
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                return response.getBody().data();
-            } else {
-                log.warn("Non-successful response status: {}", response.getStatusCode());
-                return List.of();
+    /**
+     * Case-insensitive substring search over the cached employee names, answered from the snapshot's trigram index.
+     */
+    public List<Employee> searchEmployeesByName(String searchString) {
+        return employeeCache.searchByName(searchString);
+    }
+
+    /**
+     * Highest salary in the cached snapshot, read from its salary index; empty when there are no employees. Before the
+     * first snapshot is loaded the mock API computes it, or, when it cannot, one pass over the streamed list does.
+     */
+    public OptionalInt findHighestSalary() {
+        if (!employeeCache.isLoaded()) {
+            Optional<EmployeeAggregates> aggregates = fetchServerAggregate(
+                    aggregateCalls, ALL_EMPLOYEES, "GET /employee/aggregates", employeeClient::fetchAggregates);
+            if (aggregates.isPresent()) {
+                Integer highestSalary = aggregates.get().highestSalary();
+                return highestSalary == null ? OptionalInt.empty() : OptionalInt.of(highestSalary);
             }
-        } catch (HttpStatusCodeException ex) {
-            HttpStatusCode status = ex.getStatusCode();
-            log.error("HTTP error while calling mock API: status={}, message={}", status.value(), ex.getMessage());
-
-            if (status.value() == HttpStatus.NOT_FOUND.value()) {
-                // No employees found, return empty list
-                return List.of();
-            } else if (status.value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
-                throw new TooManyRequestsException("Rate limit exceeded while fetching employees", ex);
-            } else {
-                throw new ExternalApiException("Error fetching employees from mock API: " + status, ex);
+            if (streamColdAggregates) {
+                return streamTopEarners(1).highestSalary();
             }
-        } catch (RestClientException ex) {
-            throw new ExternalApiException("Mock service unavailable:Failed to featch employees", ex);
         }
+        return employeeCache.highestSalary();
     }
 
-    public Optional<Employee> getEmployeeById(String id) {
-        String url = mockApiBaseUrl + "/employee/{id}";
-        log.info("Calling  API: {} -start", url);
-        try {
-            ResponseEntity<Response<Employee>> response = restTemplate.exchange(
-                    url, HttpMethod.GET, null, new ParameterizedTypeReference<Response<Employee>>() {}, id);
-            log.debug("Received response: {}", response);
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                return Optional.ofNullable(response.getBody().data());
+    public List<String> findTopEarningEmployeeNames(int limit) {
+        return topEarners(limit).stream().map(Employee::getEmployeeName).toList();
+    }
+
+    private List<Employee> topEarners(int limit) {
+        if (!employeeCache.isLoaded()) {
+            Optional<List<Employee>> top = fetchServerAggregate(
+                    topEarnerCalls, limit, "GET /employee/top-earners", () -> employeeClient.fetchTopEarners(limit));
+            if (top.isPresent()) {
+                return top.get();
             }
+            if (streamColdAggregates) {
+                return streamTopEarners(limit).top();
+            }
+        }
+        return employeeCache.topEarners(limit);
+    }
 
-        } catch (HttpClientErrorException.NotFound ex) {
-            throw new EmployeeNotFoundException("Employee with ID " + id + " not found");
+    /*
+     * A cold aggregate asks the mock API, which answers from its own salary index in a few bytes instead of the whole
+     * list. The snapshot is not loaded for it; once something else loads it, aggregates are answered locally again.
+     *
+     * Only a 404 (an empty result) switches server aggregates off. Any other failed call is computed locally this once
+     * and the mock API is asked again next time; 429s and refusals before the upstream still reach the caller, since
+     * streaming the list instead would cost another request.
+     */
+    private <K, T> Optional<T> fetchServerAggregate(
+            SingleFlight<K, Optional<T>> calls, K key, String name, Supplier<Optional<T>> call) {
+        if (!serverAggregates) {
+            return Optional.empty();
+        }
+        Optional<T> result;
+        try {
+            result = calls.execute(key, () -> readUpstream(name, call));
+        } catch (ExternalApiException ex) {
+            log.warn("{} failed, computing the aggregate locally: {}", name, ex.getMessage());
+            return Optional.empty();
+        }
+        if (result.isEmpty()) {
+            log.info("Mock API does not serve aggregates, computing them locally from now on");
+            serverAggregates = false;
+        }
+        return result;
+    }
 
-        } catch (HttpStatusCodeException ex) {
-            HttpStatusCode status = ex.getStatusCode();
+    /*
+     * Folds the NDJSON stream into a bounded top-k as records are parsed, so a cold aggregate neither waits for the
+     * whole list nor holds it. The snapshot is then loaded in the background for the reads that follow; that is a
+     * second upstream call, which is why this can be switched off with mock.api.stream-cold-aggregates.
+     */
+    private TopEarners streamTopEarners(int limit) {
+        TopEarners topEarners = topEarnerStreams.execute(limit, () -> {
+            TopEarners collector = new TopEarners(limit);
+            streamUpstream("GET /employee/stream", () -> employeeClient.streamEmployees(collector));
+            log.debug("Streamed aggregate over {} employees", collector.seen());
+            return collector;
+        });
+        employeeCache.prefetch();
+        return topEarners;
+    }
 
-            if (status.value() == HttpStatus.NOT_FOUND.value()) {
-                throw new EmployeeNotFoundException("Employee with ID " + id + " not found");
-            } else if (status.value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
-                throw new TooManyRequestsException("Rate limit exceeded", ex);
-            } else {
-                throw new ExternalApiException("HTTP error from mock API: " + status, ex);
+    /**
+     * Served from the cached snapshot when the employee is in it. Misses go upstream, with concurrent lookups of the
+     * same id sharing one call; ids the upstream reports as missing are remembered for a short while.
+     */
+    public Optional<Employee> getEmployeeById(String id) {
+        UUID uuid = parseUuid(id);
+        if (uuid != null) {
+            Optional<Employee> cached = employeeCache.peekById(uuid);
+            if (cached.isPresent()) {
+                return cached;
             }
-
-        } catch (RestClientException ex) {
-            throw new ExternalApiException("Mock service unavailable:Failed to fetch employee data", ex);
         }
+        if (notFoundIds.contains(id)) {
+            throw new EmployeeNotFoundException("Employee with ID " + id + " not found");
+        }
+        return employeeByIdCalls.execute(id, () -> {
+            try {
+                Optional<Employee> employee =
+                        readUpstream("GET /employee/{id}", () -> employeeClient.fetchEmployeeById(id));
+                employee.ifPresent(employeeCache::add);
+                return employee;
+            } catch (EmployeeNotFoundException ex) {
+                notFoundIds.put(id);
+                throw ex;
+            }
+        });
+    }
 
-        return Optional.empty();
+    private static UUID parseUuid(String id) {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
     }
 
     public boolean deleteEmployeeByName(String name) {
-        String url = mockApiBaseUrl + "/employee";
-        log.info("Calling  API: {} -start", url);
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
+        boolean deleted = writeUpstream("DELETE /employee", () -> employeeClient.deleteEmployeeByName(name));
+        if (deleted) {
+            employeeCache.removeFirstByName(name);
+        }
+        return deleted;
+    }
+
+    public Optional<Employee> createEmployee(CreateEmployeeInput request) {
+        Optional<Employee> created = writeUpstream("POST /employee", () -> employeeClient.createEmployee(request));
+        created.ifPresent(employeeCache::add);
+        return created;
+    }
 
-        Map<String, String> body = new HashMap<>();
-        body.put("name", name);
+    /*
+     * The batch operations below send up to mock.api.batch-size items per upstream request, so a whole batch costs
+     * one unit of the upstream quota instead of one per employee.
+     */
 
-        HttpEntity<Map<String, String>> requestEntity = new HttpEntity<>(body, headers);
+    /**
+     * Creates the employees and adds them to the cached snapshot. Returns them in request order.
+     *
+     * <p>Each upstream request creates its whole chunk or none of it, but a batch larger than mock.api.batch-size is
+     * not atomic: when a later request fails, the employees already created stay created, and the failure is a
+     * {@link BatchPartiallyAppliedException} carrying them.
+     */
+    public List<Employee> createEmployees(List<CreateEmployeeInput> requests) {
+        List<Employee> created = new ArrayList<>(requests.size());
+        for (List<CreateEmployeeInput> batch : batches(requests)) {
+            List<Employee> employees = applyBatch(
+                    "POST /employee/batch",
+                    () -> employeeClient.createEmployees(batch),
+                    created,
+                    "Created " + created.size() + " of " + requests.size() + " employees");
+            employeeCache.addAll(employees);
+            created.addAll(employees);
+        }
+        return created;
+    }
 
-        try {
-            ResponseEntity<String> response =
-                    restTemplate.exchange(url, HttpMethod.DELETE, requestEntity, String.class);
-            log.debug("Received response: {}", response);
-            return response.getStatusCode().is2xxSuccessful();
-
-        } catch (HttpClientErrorException.NotFound ex) {
-            throw new EmployeeNotFoundException("Employee with name " + name + " not found");
-
-        } catch (HttpStatusCodeException ex) {
-            HttpStatusCode status = ex.getStatusCode();
-
-            if (status.value() == HttpStatus.NOT_FOUND.value()) {
-                throw new EmployeeNotFoundException("Employee with name " + name + " not found");
-            } else if (status.value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
-                throw new TooManyRequestsException("Rate limit exceeded", ex);
-            } else {
-                throw new ExternalApiException("HTTP error from mock API: " + status, ex);
+    /**
+     * Employees for the given ids, in request order. Ids held by the cached snapshot are served from it and only the
+     * rest go upstream; unknown and malformed ids are left out, and unknown ones are remembered like single lookups.
+     */
+    public List<Employee> getEmployeesByIds(List<String> ids) {
+        Map<UUID, Employee> found = new HashMap<>();
+        Set<UUID> requested = new LinkedHashSet<>();
+        List<String> missing = new ArrayList<>();
+        for (String id : ids) {
+            UUID uuid = id == null ? null : parseUuid(id);
+            if (uuid == null || notFoundIds.contains(id) || !requested.add(uuid)) {
+                continue;
+            }
+            employeeCache.peekById(uuid).ifPresentOrElse(employee -> found.put(uuid, employee), () -> missing.add(id));
+        }
+        for (List<String> batch : batches(missing)) {
+            List<Employee> fetched =
+                    readUpstream("POST /employee/batch/lookup", () -> employeeClient.fetchEmployeesByIds(batch));
+            for (Employee employee : fetched) {
+                if (employee.getId() != null) {
+                    found.put(employee.getId(), employee);
+                }
+            }
+            employeeCache.addAll(fetched);
+            for (String id : batch) {
+                if (!found.containsKey(UUID.fromString(id))) {
+                    notFoundIds.put(id);
+                }
             }
-
-        } catch (RestClientException ex) {
-            throw new ExternalApiException("Mock service unavailable:Failed to delete employee name:" + name, ex);
         }
+        return requested.stream().map(found::get).filter(Objects::nonNull).toList();
     }
 
-    public Optional<Employee> createEmployee(CreateEmployeeInput request) {
-        String url = mockApiBaseUrl + "/employee";
-        log.info("Calling  API: {} -start", url);
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
+    /**
+     * Deletes the employees with the given ids upstream by id, so an employee sharing a name with one of them is never
+     * deleted in its place, and removes them from the cached snapshot. Returns the names deleted; malformed and
+     * unknown ids are skipped. Like creates, a delete spanning several upstream requests is not atomic and fails with a
+     * {@link BatchPartiallyAppliedException} carrying the employees deleted so far once some went through.
+     */
+    public List<String> deleteEmployeesById(List<String> ids) {
+        List<String> valid = ids.stream()
+                .filter(id -> id != null && parseUuid(id) != null)
+                .distinct()
+                .toList();
+        List<Employee> deleted = new ArrayList<>(valid.size());
+        for (List<String> batch : batches(valid)) {
+            List<Employee> removed = applyBatch(
+                    "DELETE /employee/batch/ids",
+                    () -> employeeClient.deleteEmployeesById(batch),
+                    deleted,
+                    "Deleted " + deleted.size() + " of " + valid.size() + " employees");
+            employeeCache.removeAllById(removed.stream()
+                    .map(Employee::getId)
+                    .filter(Objects::nonNull)
+                    .toList());
+            deleted.addAll(removed);
+        }
+        return deleted.stream()
+                .map(Employee::getEmployeeName)
+                .filter(Objects::nonNull)
+                .toList();
+    }
 
-        HttpEntity<CreateEmployeeInput> httpEntity = new HttpEntity<>(request, headers);
+    /*
+     * One upstream request of a batch write. A failure after earlier requests went through is reported with what they
+     * applied, so the caller learns which part of the batch took effect.
+     */
+    private <T> List<T> applyBatch(String call, Supplier<List<T>> request, List<T> applied, String progress) {
         try {
-            ResponseEntity<Response<Employee>> response = restTemplate.exchange(
-                    url, HttpMethod.POST, httpEntity, new ParameterizedTypeReference<Response<Employee>>() {});
-            log.debug("Received response: {}", response);
-            return Optional.ofNullable(response.getBody()).map(Response::data);
-        } catch (HttpClientErrorException.NotFound ex) {
-            // Employee not found
-            throw new EmployeeNotCreatedException("Failed to create employee", request, ex);
-
-        } catch (HttpStatusCodeException ex) {
-            HttpStatusCode status = ex.getStatusCode();
-
-            if (status.value() == HttpStatus.NOT_FOUND.value()) {
-                throw new EmployeeNotCreatedException("Failed to create employee", request, ex);
-            } else if (status.value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
-                throw new TooManyRequestsException("Rate limit exceeded", ex);
-            } else {
-                throw new ExternalApiException("HTTP error from mock API: " + status, ex);
+            return writeUpstream(call, request);
+        } catch (RuntimeException ex) {
+            if (applied.isEmpty()) {
+                throw ex;
             }
+            throw new BatchPartiallyAppliedException(progress + " before: " + ex.getMessage(), applied, ex);
+        }
+    }
 
-        } catch (RestClientException ex) {
-            throw new ExternalApiException(
-                    "Mock service unavailable:Failed to create employee name: :" + request.getName(), ex);
+    private <T> List<List<T>> batches(List<T> items) {
+        int size = Math.max(1, batchSize);
+        List<List<T>> batches = new ArrayList<>((items.size() + size - 1) / size);
+        for (int from = 0; from < items.size(); from += size) {
+            batches.add(items.subList(from, Math.min(items.size(), from + size)));
         }
+        return batches;
     }
 }
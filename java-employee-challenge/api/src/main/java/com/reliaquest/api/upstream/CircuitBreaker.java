@@ -0,0 +1,217 @@
+package com.reliaquest.api.upstream;
+
+import com.reliaquest.api.exception.QuotaExhaustedException;
+import com.reliaquest.api.exception.TooManyRequestsException;
+import com.reliaquest.api.exception.UpstreamUnavailableException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Count-based circuit breaker in front of the mock API.
+ *
+ * <p>While closed, the outcomes of the last {@code windowSize} calls are kept. Once at least {@code minimumCalls} have
+ * been seen and {@code failureRateThreshold} percent of them failed, the circuit opens: calls fail fast with
+ * {@link UpstreamUnavailableException} for {@code openDuration}, or until the {@code Retry-After} of the 429 that
+ * tripped it when that is later. After that a single probe call is let through (half-open); its success closes the
+ * circuit and its failure opens it again.
+ *
+ * <p>A failure is a 429, a 5xx or no response at all. Other 4xx answers, including 404, mean the upstream is working.
+ * Calls refused by a bulkhead, by the quota scheduler or by this breaker never reached the upstream and are not
+ * recorded.
+ *
+ * <p>Every state change is logged and handed to the transition listener.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final String name;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+    private final BiConsumer<State, State> onTransition;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // ring of the latest outcomes while closed, true for a failure
+    private final boolean[] window;
+    private int recorded;
+    private int next;
+    private int failures;
+    private State state = State.CLOSED;
+    private long openUntilNanos;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(
+            String name,
+            int windowSize,
+            int minimumCalls,
+            int failureRateThreshold,
+            Duration openDuration,
+            BiConsumer<State, State> onTransition) {
+        this(name, windowSize, minimumCalls, failureRateThreshold, openDuration, onTransition, System::nanoTime);
+    }
+
+    CircuitBreaker(
+            String name,
+            int windowSize,
+            int minimumCalls,
+            int failureRateThreshold,
+            Duration openDuration,
+            BiConsumer<State, State> onTransition,
+            LongSupplier nanoClock) {
+        if (windowSize < 1 || minimumCalls < 1 || failureRateThreshold < 1 || failureRateThreshold > 100) {
+            throw new IllegalArgumentException("window and minimum calls must be positive, threshold in 1..100");
+        }
+        this.name = name;
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.onTransition = onTransition;
+        this.nanoClock = nanoClock;
+        this.window = new boolean[windowSize];
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        boolean probe = acquirePermission();
+        try {
+            T result = call.get();
+            onResult(probe, false, null);
+            return result;
+        } catch (UpstreamUnavailableException | QuotaExhaustedException ex) {
+            onNotPermitted(probe);
+            throw ex;
+        } catch (RuntimeException | Error ex) {
+            onResult(probe, isFailure(ex), retryAfter(ex));
+            throw ex;
+        }
+    }
+
+    public State state() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean acquirePermission() {
+        lock.lock();
+        try {
+            if (state == State.CLOSED) {
+                return false;
+            }
+            long now = nanoClock.getAsLong();
+            if (state == State.OPEN && now - openUntilNanos >= 0) {
+                transition(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN && !probeInFlight) {
+                probeInFlight = true;
+                return true;
+            }
+            long retryAfterNanos = state == State.OPEN ? openUntilNanos - now : TimeUnit.SECONDS.toNanos(1);
+            throw new UpstreamUnavailableException(
+                    "Mock API circuit " + name + " is " + (state == State.OPEN ? "open" : "half-open"),
+                    Duration.ofNanos(retryAfterNanos));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onResult(boolean probe, boolean failure, Duration retryAfter) {
+        lock.lock();
+        try {
+            if (probe) {
+                probeInFlight = false;
+                if (failure) {
+                    open(retryAfter);
+                } else {
+                    reset();
+                    transition(State.CLOSED);
+                }
+                return;
+            }
+            if (state != State.CLOSED) {
+                // a call admitted before the circuit opened; the probe decides what happens next
+                return;
+            }
+            if (recorded == windowSize && window[next]) {
+                failures--;
+            }
+            window[next] = failure;
+            next = (next + 1) % windowSize;
+            recorded = Math.min(recorded + 1, windowSize);
+            if (failure) {
+                failures++;
+            }
+            if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+                log.warn("Mock API circuit {}: {} of the last {} calls failed", name, failures, recorded);
+                open(retryAfter);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onNotPermitted(boolean probe) {
+        if (!probe) {
+            return;
+        }
+        lock.lock();
+        try {
+            probeInFlight = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void open(Duration retryAfter) {
+        long openFor = retryAfter == null ? openNanos : Math.max(openNanos, retryAfter.toNanos());
+        openUntilNanos = nanoClock.getAsLong() + openFor;
+        reset();
+        transition(State.OPEN);
+    }
+
+    private void reset() {
+        recorded = 0;
+        next = 0;
+        failures = 0;
+    }
+
+    private void transition(State to) {
+        State from = state;
+        if (from == to) {
+            return;
+        }
+        state = to;
+        log.info("Mock API circuit {}: {} -> {}", name, from, to);
+        onTransition.accept(from, to);
+    }
+
+    static boolean isFailure(Throwable ex) {
+        if (ex instanceof QuotaExhaustedException) {
+            return false;
+        }
+        String outcome = UpstreamMetrics.outcome(ex);
+        return outcome.equals("429") || outcome.equals("5xx") || outcome.equals("error");
+    }
+
+    private static Duration retryAfter(Throwable ex) {
+        return ex instanceof TooManyRequestsException tooManyRequests
+                ? tooManyRequests.getRetryAfter().orElse(null)
+                : null;
+    }
+}
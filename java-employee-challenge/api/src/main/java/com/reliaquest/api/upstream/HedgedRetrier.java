@@ -0,0 +1,273 @@
+package com.reliaquest.api.upstream;
+
+import com.reliaquest.api.exception.UpstreamUnavailableException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+/**
+ * Retries and hedges idempotent mock API reads. Only use it for calls that can safely be sent twice.
+ *
+ * <p>Hedging: once a call has enough latency samples, an attempt that has not answered within that call's p95 (but
+ * never sooner than {@code minHedgeDelay}) gets a second, concurrent attempt, and whichever succeeds first is returned.
+ * The slower attempt is not cancelled, since a blocking HTTP call cannot be interrupted; its answer is dropped. So that
+ * it still counts against upstream concurrency after the caller has returned, a hedge takes its own slot from the read
+ * {@link Bulkhead}, without waiting, and holds it until both attempts are done; when no slot is free the call is not
+ * hedged.
+ *
+ * <p>Retries: a 5xx or an I/O failure is retried up to {@code maxRetries} times after a full-jitter exponential backoff
+ * between zero and {@code baseDelay * 2^retry}, capped at {@code maxDelay}. A 429 is never retried here; waiting
+ * out the rate limit is the quota scheduler's job.
+ *
+ * <p>Both kinds of extra attempt are paid for from the shared {@link RetryBudget}; when it is empty, calls get a single
+ * attempt. Without an executor, calls are retried but not hedged, and the bulkhead may be null.
+ */
+@Slf4j
+public class HedgedRetrier {
+
+    private final RetryBudget budget;
+    private final int maxRetries;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final Executor hedgeExecutor;
+    private final Bulkhead hedgeBulkhead;
+    private final long minHedgeDelayNanos;
+    private final ConcurrentHashMap<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    public HedgedRetrier(
+            RetryBudget budget,
+            int maxRetries,
+            Duration baseDelay,
+            Duration maxDelay,
+            Executor hedgeExecutor,
+            Bulkhead hedgeBulkhead,
+            Duration minHedgeDelay) {
+        this.budget = budget;
+        this.maxRetries = maxRetries;
+        this.baseDelayMillis = baseDelay.toMillis();
+        this.maxDelayMillis = maxDelay.toMillis();
+        this.hedgeExecutor = hedgeExecutor;
+        this.hedgeBulkhead = hedgeBulkhead;
+        this.minHedgeDelayNanos = minHedgeDelay.toNanos();
+    }
+
+    public <T> T execute(String call, Supplier<T> attempt) {
+        budget.deposit();
+        for (int retry = 0; ; retry++) {
+            try {
+                return hedged(call, attempt);
+            } catch (RuntimeException ex) {
+                if (retry >= maxRetries || !isRetryable(ex) || !budget.tryWithdraw()) {
+                    throw ex;
+                }
+                retries.increment();
+                long delay = backoffMillis(retry);
+                log.warn("Retrying {} in {} ms after: {}", call, delay, ex.getMessage());
+                sleep(delay, ex);
+            }
+        }
+    }
+
+    private <T> T hedged(String call, Supplier<T> attempt) {
+        LatencyWindow latency = latencies.computeIfAbsent(call, ignored -> new LatencyWindow());
+        long p95 = latency.p95Nanos();
+        if (hedgeExecutor == null || p95 < 0 || !budget.canWithdraw()) {
+            return timed(attempt, latency);
+        }
+        CompletableFuture<T> first;
+        try {
+            first = CompletableFuture.supplyAsync(() -> timed(attempt, latency), hedgeExecutor);
+        } catch (RejectedExecutionException ex) {
+            return timed(attempt, latency);
+        }
+        long hedgeDelay = Math.max(p95, minHedgeDelayNanos);
+        try {
+            return first.get(hedgeDelay, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            // still running: hedge below
+        } catch (ExecutionException ex) {
+            throw unwrap(ex);
+        } catch (InterruptedException ex) {
+            throw interrupted();
+        }
+        if (!hedgeBulkhead.tryAcquire()) {
+            return await(first);
+        }
+        if (!budget.tryWithdraw()) {
+            hedgeBulkhead.release();
+            return await(first);
+        }
+        CompletableFuture<T> second;
+        try {
+            second = CompletableFuture.supplyAsync(() -> timed(attempt, latency), hedgeExecutor);
+        } catch (RejectedExecutionException ex) {
+            hedgeBulkhead.release();
+            return await(first);
+        }
+        // covers whichever attempt is still running once the caller has returned with the other
+        CompletableFuture.allOf(first, second).whenComplete((ignored, failure) -> hedgeBulkhead.release());
+        hedges.increment();
+        log.debug("Hedging {} after {} ms", call, TimeUnit.NANOSECONDS.toMillis(hedgeDelay));
+        return await(firstSuccessful(first, second));
+    }
+
+    /*
+     * Completes with the first attempt to succeed, or with the primary's failure once both have failed.
+     */
+    private <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> primary, CompletableFuture<T> hedge) {
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger failed = new AtomicInteger();
+        // the win is claimed before the caller is released, so hedgeWinCount() is current when execute() returns
+        AtomicBoolean decided = new AtomicBoolean();
+        primary.whenComplete((value, failure) -> {
+            if (failure == null) {
+                if (decided.compareAndSet(false, true)) {
+                    winner.complete(value);
+                }
+            } else if (failed.incrementAndGet() == 2) {
+                winner.completeExceptionally(failure);
+            }
+        });
+        hedge.whenComplete((value, failure) -> {
+            if (failure == null) {
+                if (decided.compareAndSet(false, true)) {
+                    hedgeWins.increment();
+                    winner.complete(value);
+                }
+            } else if (failed.incrementAndGet() == 2) {
+                primary.whenComplete((ignored, primaryFailure) -> winner.completeExceptionally(primaryFailure));
+            }
+        });
+        return winner;
+    }
+
+    private static <T> T timed(Supplier<T> attempt, LatencyWindow latency) {
+        long start = System.nanoTime();
+        T result = attempt.get();
+        latency.record(System.nanoTime() - start);
+        return result;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            throw unwrap(ex);
+        } catch (InterruptedException ex) {
+            throw interrupted();
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable ex) {
+        Throwable cause = ex;
+        while (cause instanceof ExecutionException || cause instanceof CompletionException) {
+            if (cause.getCause() == null) {
+                break;
+            }
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException("Mock API call failed", cause);
+    }
+
+    private static UpstreamUnavailableException interrupted() {
+        Thread.currentThread().interrupt();
+        return new UpstreamUnavailableException("Interrupted while waiting for the mock API", null);
+    }
+
+    private long backoffMillis(int retry) {
+        long cap = Math.min(maxDelayMillis, baseDelayMillis << Math.min(retry, 20));
+        return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private static void sleep(long millis, RuntimeException failure) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw failure;
+        }
+    }
+
+    /*
+     * Worth another attempt: the upstream answered 5xx, or no answer came back at all.
+     */
+    static boolean isRetryable(Throwable ex) {
+        if (UpstreamMetrics.outcome(ex).equals("5xx")) {
+            return true;
+        }
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException || cause instanceof WebClientRequestException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long retryCount() {
+        return retries.sum();
+    }
+
+    public long hedgeCount() {
+        return hedges.sum();
+    }
+
+    public long hedgeWinCount() {
+        return hedgeWins.sum();
+    }
+
+    /**
+     * The latest successful latencies of one call and their p95, recomputed every few samples from a sorted copy.
+     */
+    private static final class LatencyWindow {
+
+        private static final int SIZE = 128;
+        private static final int MIN_SAMPLES = 32;
+        private static final int RECOMPUTE_EVERY = 16;
+
+        private final long[] samples = new long[SIZE];
+        private long recorded;
+        private volatile long p95Nanos = -1;
+
+        synchronized void record(long nanos) {
+            samples[(int) (recorded % SIZE)] = nanos;
+            recorded++;
+            if (recorded >= MIN_SAMPLES && recorded % RECOMPUTE_EVERY == 0) {
+                long[] sorted = Arrays.copyOf(samples, (int) Math.min(recorded, SIZE));
+                Arrays.sort(sorted);
+                p95Nanos = sorted[(int) Math.ceil(sorted.length * 0.95) - 1];
+            }
+        }
+
+        // -1 until enough samples have been seen
+        long p95Nanos() {
+            return p95Nanos;
+        }
+    }
+}
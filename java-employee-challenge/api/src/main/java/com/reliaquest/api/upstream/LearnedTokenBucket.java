@@ -0,0 +1,108 @@
+package com.reliaquest.api.upstream;
+
+/**
+ * Estimate of the mock server's token bucket, learned from the 429s that carry {@code Retry-After}. Not thread-safe;
+ * {@link QuotaScheduler} only uses it under its lock.
+ *
+ * <p>Just after a refusal's {@code Retry-After} the bucket holds exactly one token, so the calls accepted between two
+ * refusals equal the tokens refilled between those two instants, which gives the refill interval. Replaying the recent
+ * accepted calls against that interval gives the tokens spent at the refusal, when the bucket is empty, and so its
+ * burst. Both estimates are refreshed on every refusal.
+ */
+final class LearnedTokenBucket {
+
+    private static final int HISTORY = 64;
+
+    private final long[] acceptedAt = new long[HISTORY];
+    private int acceptedTotal;
+
+    private long refillNanos;
+    private boolean refillSampled;
+    private int burst;
+    private double spent;
+    private long spentAtNanos;
+    private long lastRefusalTokenNanos;
+    private int acceptedSinceRefusal;
+
+    boolean known() {
+        return refillNanos > 0;
+    }
+
+    int burst() {
+        return burst;
+    }
+
+    long refillNanos() {
+        return refillNanos;
+    }
+
+    void onAccepted(long now) {
+        acceptedAt[acceptedTotal % HISTORY] = now;
+        acceptedTotal++;
+        if (known()) {
+            spent = spentAt(now) + 1;
+            spentAtNanos = now;
+            acceptedSinceRefusal++;
+        }
+    }
+
+    /*
+     * The server holds exactly one token at now + retryAfter. It held one at the previous refusal's instant too, so the
+     * calls accepted in between used up at most the tokens refilled in between, exactly as many unless the bucket
+     * filled up meanwhile. Each sample is therefore an upper bound: a smaller one replaces the estimate, a larger one
+     * only moves it a quarter of the way, so that an idle spell does not slow calls down for long.
+     */
+    void onRefused(long now, long retryAfterNanos) {
+        long tokenAt = now + retryAfterNanos;
+        if (!known()) {
+            // a first guess: the wait for the next token is at most one refill interval
+            refillNanos = Math.max(1, retryAfterNanos);
+            startRefusalInterval(tokenAt);
+        } else if (acceptedSinceRefusal > 0) {
+            long sample = Math.max(1, (tokenAt - lastRefusalTokenNanos) / acceptedSinceRefusal);
+            refillNanos = !refillSampled || sample < refillNanos ? sample : refillNanos + (sample - refillNanos) / 4;
+            refillSampled = true;
+            startRefusalInterval(tokenAt);
+        }
+        burst = Math.max(1, (int) Math.ceil(replaySpent(now) - 1e-9));
+        // the bucket is empty now, whatever the replay made of it
+        spent = burst;
+        spentAtNanos = now;
+    }
+
+    /**
+     * How long until the bucket has a token for one more call, counting {@code inFlight} calls not answered yet.
+     */
+    long untilTokenNanos(long now, int inFlight) {
+        double needed = spentAt(now) + inFlight + 1 - burst;
+        return needed <= 0 ? 0 : (long) Math.ceil(needed * refillNanos);
+    }
+
+    private void startRefusalInterval(long tokenAt) {
+        lastRefusalTokenNanos = tokenAt;
+        acceptedSinceRefusal = 0;
+    }
+
+    /*
+     * The tokens spent at now, replaying the recent accepted calls against the current refill estimate and starting
+     * from a full bucket before the oldest call remembered.
+     */
+    private double replaySpent(long now) {
+        int count = Math.min(acceptedTotal, HISTORY);
+        double replayed = 0;
+        long previous = 0;
+        for (int i = acceptedTotal - count; i < acceptedTotal; i++) {
+            long at = acceptedAt[i % HISTORY];
+            if (replayed > 0) {
+                replayed = Math.max(0, replayed - (double) (at - previous) / refillNanos);
+            }
+            replayed += 1;
+            previous = at;
+        }
+        return count == 0 ? 0 : Math.max(0, replayed - (double) (now - previous) / refillNanos);
+    }
+
+    private double spentAt(long now) {
+        return Math.max(0, spent - (double) (now - spentAtNanos) / refillNanos);
+    }
+}
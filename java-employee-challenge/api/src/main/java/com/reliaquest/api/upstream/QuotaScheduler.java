@@ -0,0 +1,269 @@
+package com.reliaquest.api.upstream;
+
+import com.reliaquest.api.exception.QuotaExhaustedException;
+import com.reliaquest.api.exception.TooManyRequestsException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Client-side scheduler that learns the mock API request quota and keeps calls inside it.
+ *
+ * <p>Until a 429 carries {@code Retry-After}, the upstream is modelled as a fixed window: it accepts a number of
+ * requests and then refuses everything until a backoff window has passed since the last accepted request. The first
+ * 429 fixes the quota at the calls accepted in the current window and defers callers until the learned window has
+ * elapsed, after which a single probe confirms the reset. The time between the last accepted call and a successful
+ * probe becomes the learned window. Calls past the quota are never sent, so a later 429 can only lower it.
+ *
+ * <p>A 429 with {@code Retry-After} comes from the mock server's token bucket, which refills continuously, and switches
+ * the scheduler to a {@link LearnedTokenBucket}. Calls are then admitted while the estimate, counting calls still in
+ * flight, leaves a token free, and otherwise wait for the refill.
+ *
+ * <p>Only calls that got an HTTP response are counted as accepted. A call that failed to connect or timed out may
+ * never have reached the server's limiter, so it only gives back its slot.
+ *
+ * <p>Callers wait at most {@code maxWait} for the window to reopen and fail fast with {@link QuotaExhaustedException}
+ * otherwise, without reaching the upstream; the exception carries the remaining wait as its retry-after.
+ */
+@Slf4j
+public class QuotaScheduler {
+
+    private final long probeIntervalNanos;
+    private final long maxWaitNanos;
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition stateChanged = lock.newCondition();
+    private final LearnedTokenBucket bucket = new LearnedTokenBucket();
+
+    // fixed-window model, used until a refusal carries Retry-After
+    private int learnedQuota;
+    private long windowNanos;
+    private long windowStartNanos;
+    private int admittedInWindow;
+    private int acceptedInWindow;
+    private long lastAcceptedNanos;
+
+    // after a refusal, callers wait until blockedUntilNanos and a single probe then goes out
+    private boolean blocked;
+    private long blockedUntilNanos;
+    private boolean probeInFlight;
+    private int inFlight;
+
+    public QuotaScheduler(Duration initialWindow, Duration probeInterval, Duration maxWait) {
+        this(initialWindow, probeInterval, maxWait, System::nanoTime);
+    }
+
+    QuotaScheduler(Duration initialWindow, Duration probeInterval, Duration maxWait, LongSupplier nanoClock) {
+        this.windowNanos = initialWindow.toNanos();
+        this.probeIntervalNanos = probeInterval.toNanos();
+        this.maxWaitNanos = maxWait.toNanos();
+        this.nanoClock = nanoClock;
+        this.lastAcceptedNanos = nanoClock.getAsLong();
+        this.windowStartNanos = lastAcceptedNanos;
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        boolean probe = acquire();
+        try {
+            T result = call.get();
+            onAnswered(probe);
+            return result;
+        } catch (TooManyRequestsException ex) {
+            onRefused(probe, ex.getRetryAfter().orElse(null));
+            throw ex;
+        } catch (RuntimeException | Error ex) {
+            if (UpstreamMetrics.outcome(ex).equals("error")) {
+                onUnanswered(probe);
+            } else {
+                onAnswered(probe);
+            }
+            throw ex;
+        }
+    }
+
+    public int learnedQuota() {
+        lock.lock();
+        try {
+            return bucket.known() ? bucket.burst() : learnedQuota;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Duration learnedWindow() {
+        lock.lock();
+        try {
+            return Duration.ofNanos(windowNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The learned time for the upstream's token bucket to refill one token, zero until a 429 carried Retry-After.
+     */
+    public Duration learnedRefillInterval() {
+        lock.lock();
+        try {
+            return Duration.ofNanos(bucket.refillNanos());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean acquire() {
+        lock.lock();
+        try {
+            long deadline = nanoClock.getAsLong() + maxWaitNanos;
+            while (true) {
+                long now = nanoClock.getAsLong();
+                long untilAdmitted;
+                if (blocked) {
+                    untilAdmitted = blockedUntilNanos - now;
+                    if (untilAdmitted <= 0 && !probeInFlight) {
+                        probeInFlight = true;
+                        inFlight++;
+                        return true;
+                    }
+                } else if (bucket.known()) {
+                    untilAdmitted = bucket.untilTokenNanos(now, inFlight);
+                    if (untilAdmitted <= 0) {
+                        inFlight++;
+                        return false;
+                    }
+                } else {
+                    if (now - windowStartNanos >= windowNanos) {
+                        startWindow(now);
+                    }
+                    if (learnedQuota == 0 || admittedInWindow < learnedQuota) {
+                        admittedInWindow++;
+                        inFlight++;
+                        return false;
+                    }
+                    block(lastAcceptedNanos + windowNanos);
+                    log.debug("Upstream quota of {} used, deferring calls until the window reopens", learnedQuota);
+                    continue;
+                }
+                long remaining = deadline - now;
+                long waitNanos = blocked && probeInFlight ? remaining : untilAdmitted;
+                if (remaining <= 0 || waitNanos > remaining) {
+                    long retryAfterNanos = untilAdmitted > 0 ? untilAdmitted : probeIntervalNanos;
+                    throw new QuotaExhaustedException(
+                            "Upstream quota exhausted, retry in " + TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos)
+                                    + "s",
+                            null,
+                            Duration.ofNanos(retryAfterNanos));
+                }
+                stateChanged.awaitNanos(waitNanos);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new QuotaExhaustedException("Interrupted while waiting for upstream quota", ex, null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onAnswered(boolean probe) {
+        lock.lock();
+        try {
+            long now = nanoClock.getAsLong();
+            inFlight--;
+            bucket.onAccepted(now);
+            if (probe) {
+                probeInFlight = false;
+                blocked = false;
+                if (!bucket.known()) {
+                    windowNanos = now - lastAcceptedNanos;
+                    startWindow(now);
+                    admittedInWindow = 1;
+                    acceptedInWindow = 1;
+                    log.info(
+                            "Upstream quota window reopened after {}ms (quota {})",
+                            TimeUnit.NANOSECONDS.toMillis(windowNanos),
+                            learnedQuota);
+                }
+            } else if (!bucket.known()) {
+                if (!blocked && now - windowStartNanos >= windowNanos) {
+                    // the call was admitted in a window that has lapsed since; it opens the next one
+                    startWindow(now);
+                    admittedInWindow = 1;
+                }
+                acceptedInWindow++;
+            }
+            lastAcceptedNanos = now;
+            stateChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onUnanswered(boolean probe) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (probe) {
+                probeInFlight = false;
+                blockedUntilNanos = nanoClock.getAsLong() + probeIntervalNanos;
+            } else {
+                admittedInWindow = Math.max(0, admittedInWindow - 1);
+            }
+            stateChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onRefused(boolean probe, Duration retryAfter) {
+        lock.lock();
+        try {
+            long now = nanoClock.getAsLong();
+            inFlight--;
+            if (retryAfter != null) {
+                bucket.onRefused(now, retryAfter.toNanos());
+                log.debug(
+                        "Upstream token bucket estimated at {} tokens, one per {}ms",
+                        bucket.burst(),
+                        TimeUnit.NANOSECONDS.toMillis(bucket.refillNanos()));
+            }
+            if (probe) {
+                probeInFlight = false;
+                blockedUntilNanos = now + (retryAfter != null ? retryAfter.toNanos() : probeIntervalNanos);
+            } else {
+                admittedInWindow = Math.max(0, admittedInWindow - 1);
+                if (blocked && retryAfter != null) {
+                    blockedUntilNanos = Math.max(blockedUntilNanos, now + retryAfter.toNanos());
+                }
+                if (!blocked) {
+                    if (!bucket.known()) {
+                        learnedQuota = Math.max(1, acceptedInWindow);
+                    }
+                    block(retryAfter != null ? now + retryAfter.toNanos() : lastAcceptedNanos + windowNanos);
+                    log.warn(
+                            "Upstream refused request with a learned quota of {}, deferring calls for {}ms",
+                            bucket.known() ? bucket.burst() : learnedQuota,
+                            TimeUnit.NANOSECONDS.toMillis(blockedUntilNanos - now));
+                }
+            }
+            stateChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void startWindow(long now) {
+        windowStartNanos = now;
+        admittedInWindow = 0;
+        acceptedInWindow = 0;
+    }
+
+    private void block(long untilNanos) {
+        blocked = true;
+        blockedUntilNanos = untilNanos;
+    }
+}
@@ -0,0 +1,59 @@
+package com.reliaquest.api.upstream;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps extra attempts, retries and hedges alike, at a fraction of the calls made. Every call deposits {@code ratio} of
+ * an attempt, up to {@code maxBalance}, and every extra attempt withdraws a whole one. While the upstream is healthy
+ * the balance stays full; when every call fails, extra attempts settle at {@code ratio} of the traffic instead of
+ * multiplying it, so they cannot push the mock API into its rate limiter.
+ *
+ * <p>The balance is kept in thousandths of an attempt in one atomic long.
+ */
+public class RetryBudget {
+
+    private static final long ONE = 1000;
+
+    private final long deposit;
+    private final long maxBalance;
+    private final AtomicLong balance;
+    private final LongAdder refused = new LongAdder();
+
+    public RetryBudget(double ratio, int maxBalance) {
+        if (ratio < 0 || ratio > 1 || maxBalance < 1) {
+            throw new IllegalArgumentException("ratio must be in 0..1 and maxBalance positive");
+        }
+        this.deposit = Math.round(ratio * ONE);
+        this.maxBalance = maxBalance * ONE;
+        this.balance = new AtomicLong(this.maxBalance);
+    }
+
+    public void deposit() {
+        balance.accumulateAndGet(deposit, (current, amount) -> Math.min(current + amount, maxBalance));
+    }
+
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < ONE) {
+                refused.increment();
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - ONE));
+        return true;
+    }
+
+    public boolean canWithdraw() {
+        return balance.get() >= ONE;
+    }
+
+    public double balance() {
+        return balance.get() / (double) ONE;
+    }
+
+    public long refusedCount() {
+        return refused.sum();
+    }
+}
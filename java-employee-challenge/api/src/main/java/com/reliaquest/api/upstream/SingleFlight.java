@@ -0,0 +1,108 @@
+package com.reliaquest.api.upstream;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Coalesces concurrent calls for the same key into a single execution.
+ *
+ * <p>The first caller for a key runs the supplier; callers arriving while it is in flight wait for and share its
+ * result, or its exception. Nothing is cached once the call completes.
+ */
+@Slf4j
+public class SingleFlight<K, V> {
+
+    static final String METRIC = "mock.api.singleflight.calls";
+
+    private final String name;
+    private final ConcurrentHashMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder merged = new LongAdder();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    public V execute(K key, Supplier<V> supplier) {
+        calls.increment();
+        Flight<V> flight = new Flight<>();
+        Flight<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            merged.increment();
+            existing.waiters.incrementAndGet();
+            return await(existing.result);
+        }
+
+        executions.increment();
+        try {
+            V value = supplier.get();
+            flight.result.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            flight.result.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, flight);
+            int waiters = flight.waiters.get();
+            if (waiters > 0) {
+                log.debug("Coalesced {} callers onto one {} call for key {}", waiters, name, key);
+            }
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(calls.sum(), executions.sum(), merged.sum());
+    }
+
+    /**
+     * Exports the counts as {@code mock.api.singleflight.calls}, tagged with this call's name and whether a caller ran
+     * the call or shared one already in flight. Read at scrape time, so calls pay nothing extra.
+     */
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(METRIC, executions, LongAdder::sum)
+                .description("Callers that ran the upstream call or shared one already in flight")
+                .tag("call", name)
+                .tag("result", "executed")
+                .register(registry);
+        FunctionCounter.builder(METRIC, merged, LongAdder::sum)
+                .description("Callers that ran the upstream call or shared one already in flight")
+                .tag("call", name)
+                .tag("result", "merged")
+                .register(registry);
+    }
+
+    private static <V> V await(CompletableFuture<V> result) {
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * @param calls total number of callers
+     * @param executions callers that actually ran the upstream call
+     * @param merged callers that shared an in-flight call instead of making their own
+     */
+    public record Stats(long calls, long executions, long merged) {}
+
+    private static final class Flight<V> {
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private final AtomicInteger waiters = new AtomicInteger();
+    }
+}
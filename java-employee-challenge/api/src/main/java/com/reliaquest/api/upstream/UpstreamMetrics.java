@@ -0,0 +1,85 @@
+package com.reliaquest.api.upstream;
+
+import com.reliaquest.api.exception.EmployeeNotCreatedException;
+import com.reliaquest.api.exception.EmployeeNotFoundException;
+import com.reliaquest.api.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * Times mock API calls as {@code mock.api.upstream.requests}, tagged with the call and its outcome: {@code 2xx},
+ * {@code 404}, {@code 429}, another {@code 4xx} or {@code 5xx}, or {@code error} when no response came back.
+ *
+ * <p>The outcome is read from what the client surfaces. A 404 that the client turns into an empty result counts as
+ * {@code 2xx}, and the status of anything else is taken from the HTTP exception in the cause chain. Timers are
+ * histograms with bounded buckets and are cached per call and outcome, so recording costs a map lookup and a few
+ * atomic updates.
+ */
+public class UpstreamMetrics {
+
+    static final String TIMER = "mock.api.upstream.requests";
+
+    private final MeterRegistry registry;
+    private final ConcurrentHashMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public UpstreamMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public <T> T record(String call, Supplier<T> request) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = request.get();
+            outcome = "2xx";
+            return result;
+        } catch (RuntimeException ex) {
+            outcome = outcome(ex);
+            throw ex;
+        } finally {
+            timer(call, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String call, String outcome) {
+        return timers.computeIfAbsent(call + ' ' + outcome, ignored -> Timer.builder(TIMER)
+                .description("Calls to the mock employee API")
+                .tag("call", call)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry));
+    }
+
+    static String outcome(Throwable ex) {
+        if (ex instanceof TooManyRequestsException) {
+            return "429";
+        }
+        if (ex instanceof EmployeeNotFoundException || ex instanceof EmployeeNotCreatedException) {
+            return "404";
+        }
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RestClientResponseException response) {
+                return outcome(response.getStatusCode().value());
+            }
+            if (cause instanceof WebClientResponseException response) {
+                return outcome(response.getStatusCode().value());
+            }
+        }
+        return "error";
+    }
+
+    private static String outcome(int status) {
+        if (status == 404 || status == 429) {
+            return Integer.toString(status);
+        }
+        return status / 100 + "xx";
+    }
+}
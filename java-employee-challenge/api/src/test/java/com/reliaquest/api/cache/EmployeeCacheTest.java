@@ -0,0 +1,309 @@
+package com.reliaquest.api.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.exception.TooManyRequestsException;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeChange;
+import com.reliaquest.api.model.Versioned;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class EmployeeCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void shouldLoadOnce_whenSnapshotIsFresh() {
+        EmployeeCache cache = new EmployeeCache(() -> load(2), Duration.ofMinutes(5), Runnable::run);
+
+        assertEquals(2, cache.get().size());
+        assertEquals(2, cache.get().size());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldServeStaleSnapshotAndRefresh_whenTtlExpired() {
+        EmployeeCache cache = new EmployeeCache(() -> load(loads.get() + 1), Duration.ZERO, Runnable::run);
+
+        assertEquals(1, cache.get().size());
+        // stale snapshot is returned while the refresh runs
+        assertEquals(1, cache.get().size());
+        assertEquals(2, loads.get());
+        assertEquals(2, cache.get().size());
+    }
+
+    @Test
+    void shouldKeepLastSnapshot_whenRefreshFails() {
+        EmployeeCache cache = new EmployeeCache(
+                () -> {
+                    if (loads.getAndIncrement() > 0) {
+                        throw new TooManyRequestsException("Rate limit exceeded", null);
+                    }
+                    return List.of(employee("Employee1", 1000));
+                },
+                Duration.ZERO,
+                Runnable::run);
+
+        assertEquals(1, cache.get().size());
+        assertEquals(1, cache.get().size());
+        assertEquals("Employee1", cache.get().get(0).getEmployeeName());
+    }
+
+    @Test
+    void shouldApplyLocalMutations_whenSnapshotLoaded() {
+        EmployeeCache cache = new EmployeeCache(() -> load(2), Duration.ofMinutes(5), Runnable::run);
+        cache.get();
+
+        cache.add(employee("vipin", 5000));
+        cache.removeFirstByName("EMPLOYEE1");
+
+        assertEquals(
+                List.of("Employee2", "vipin"),
+                cache.get().stream().map(Employee::getEmployeeName).toList());
+    }
+
+    @Test
+    void shouldApplyBatchMutations_whenNamesRepeatOrIdsAreKnown() {
+        EmployeeCache cache = new EmployeeCache(() -> load(3), Duration.ofMinutes(5), Runnable::run);
+        List<Employee> initial = cache.get();
+        Employee twin = employee("employee2", 9000);
+        Employee vipin = employee("vipin", 5000);
+
+        cache.addAll(List.of(twin, vipin, initial.get(0)));
+        cache.removeAllByName(List.of("EMPLOYEE2", "Employee2", "Employee3", "nobody"));
+
+        assertEquals(
+                List.of("Employee1", "vipin"),
+                cache.get().stream().map(Employee::getEmployeeName).toList());
+        assertEquals(Optional.empty(), cache.peekById(twin.getId()));
+        assertEquals(OptionalInt.of(5000), cache.highestSalary());
+        assertTrue(cache.searchByName("employee").stream()
+                .allMatch(employee -> employee.getEmployeeName().equals("Employee1")));
+    }
+
+    @Test
+    void shouldKeepSalaryIndexInOrder_whenEmployeesAddedAndRemoved() {
+        EmployeeCache cache = new EmployeeCache(() -> load(20), Duration.ofMinutes(5), Runnable::run);
+
+        assertEquals(OptionalInt.of(11000), cache.highestSalary());
+
+        cache.add(employee("vipin", 50000));
+        cache.removeFirstByName("Employee20");
+
+        assertEquals(OptionalInt.of(50000), cache.highestSalary());
+        assertEquals(
+                List.of("vipin", "Employee19", "Employee18"),
+                cache.topEarners(3).stream().map(Employee::getEmployeeName).toList());
+    }
+
+    @Test
+    void shouldFindByIdWithoutLoading_whenPeeking() {
+        EmployeeCache cache = new EmployeeCache(() -> load(2), Duration.ofMinutes(5), Runnable::run);
+        Employee added = employee("vipin", 5000);
+
+        assertTrue(cache.peekById(added.getId()).isEmpty());
+        assertEquals(0, loads.get());
+
+        cache.get();
+        cache.add(added);
+        cache.add(added);
+
+        assertEquals(Optional.of(added), cache.peekById(added.getId()));
+        assertEquals(3, cache.get().size());
+        cache.removeFirstByName("vipin");
+        assertTrue(cache.peekById(added.getId()).isEmpty());
+    }
+
+    @Test
+    void shouldReturnEmptyAggregates_whenNoEmployees() {
+        EmployeeCache cache = new EmployeeCache(List::of, Duration.ofMinutes(5), Runnable::run);
+
+        assertEquals(OptionalInt.empty(), cache.highestSalary());
+        assertTrue(cache.topEarners(10).isEmpty());
+    }
+
+    @Test
+    void shouldLoadInBackgroundOnce_whenPrefetched() {
+        EmployeeCache cache = new EmployeeCache(() -> load(3), Duration.ofMinutes(5), Runnable::run);
+
+        assertFalse(cache.isLoaded());
+        cache.prefetch();
+        assertTrue(cache.isLoaded());
+        cache.prefetch();
+        assertEquals(3, cache.get().size());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldKeepSnapshotAndRevalidateWithItsTag_whenUpstreamReportsNotModified() {
+        List<String> tags = new ArrayList<>();
+        EmployeeCache cache = EmployeeCache.revalidating(
+                etag -> {
+                    tags.add(etag);
+                    return etag == null ? Optional.of(new Versioned<>(load(2), "v1")) : Optional.empty();
+                },
+                Duration.ZERO,
+                Runnable::run);
+
+        List<Employee> first = cache.get();
+        cache.add(employee("vipin", 5000));
+        cache.get();
+
+        assertEquals(Arrays.asList(null, "v1"), tags);
+        assertEquals(1, loads.get());
+        assertEquals(3, cache.get().size());
+        assertEquals(first.get(0), cache.get().get(0));
+        assertEquals(OptionalInt.of(5000), cache.highestSalary());
+    }
+
+    @Test
+    void shouldReplaceSnapshot_whenUpstreamReturnsNewVersion() {
+        EmployeeCache cache = EmployeeCache.revalidating(
+                etag -> Optional.of(new Versioned<>(load(loads.get() + 1), "v" + loads.get())),
+                Duration.ZERO,
+                Runnable::run);
+
+        assertEquals(1, cache.get().size());
+        assertEquals(1, cache.get().size());
+        assertEquals(2, cache.get().size());
+    }
+
+    @Test
+    void shouldApplyChangesWithoutReloading_whenFeedHasThem() {
+        List<Employee> initial = load(3);
+        Employee added = employee("vipin", 50000);
+        List<String> since = new ArrayList<>();
+        EmployeeCache cache = EmployeeCache.withChangeFeed(
+                etag -> Optional.of(new Versioned<>(initial, "v3")),
+                etag -> {
+                    since.add(etag);
+                    return Optional.of(new Versioned<>(
+                            List.of(
+                                    new EmployeeChange(4, EmployeeChange.Type.CREATED, added),
+                                    new EmployeeChange(5, EmployeeChange.Type.DELETED, initial.get(0))),
+                            "v5"));
+                },
+                Duration.ZERO,
+                Runnable::run);
+
+        cache.get();
+        cache.get();
+        // the same changes again are already applied and must not duplicate anything
+        cache.get();
+
+        assertEquals(List.of("v3", "v5"), since);
+        assertEquals(1, loads.get());
+        assertEquals(
+                List.of("Employee2", "Employee3", "vipin"),
+                cache.get().stream().map(Employee::getEmployeeName).toList());
+        assertEquals(OptionalInt.of(50000), cache.highestSalary());
+        assertEquals(Optional.of(added), cache.peekById(added.getId()));
+        assertTrue(cache.searchByName("employee1").isEmpty());
+    }
+
+    @Test
+    void shouldReloadList_whenFeedAsksForResync() {
+        List<String> since = new ArrayList<>();
+        EmployeeCache cache = EmployeeCache.withChangeFeed(
+                etag -> Optional.of(new Versioned<>(load(loads.get() + 1), "v" + loads.get())),
+                etag -> {
+                    since.add(etag);
+                    return Optional.empty();
+                },
+                Duration.ZERO,
+                Runnable::run);
+
+        assertEquals(1, cache.get().size());
+        assertEquals(1, cache.get().size());
+        assertEquals(2, cache.get().size());
+        assertEquals(List.of("v1", "v2"), since);
+    }
+
+    @Test
+    void shouldOnlyApplyPushedChanges_whenLive() {
+        EmployeeCache cache = EmployeeCache.revalidating(
+                etag -> Optional.of(new Versioned<>(load(2), "v" + loads.get())), Duration.ZERO, Runnable::run);
+        cache.get();
+        cache.setLive(true);
+        Employee pushed = employee("vipin", 5000);
+
+        cache.applyChanges(List.of(new EmployeeChange(2, EmployeeChange.Type.CREATED, pushed)), "v1-pushed");
+
+        assertEquals(3, cache.get().size());
+        assertEquals("v1-pushed", cache.etag());
+        assertEquals(1, loads.get());
+
+        cache.reload();
+        assertEquals(2, loads.get());
+        assertEquals(2, cache.get().size());
+        assertEquals("v2", cache.etag());
+    }
+
+    @Test
+    void shouldKeepLocalCreate_whenRefreshLoadedBeforeItCompletesAfterwards() throws Exception {
+        List<Employee> initial = load(2);
+        CountDownLatch refreshStarted = new CountDownLatch(1);
+        CountDownLatch releaseRefresh = new CountDownLatch(1);
+        ExecutorService refresher = Executors.newSingleThreadExecutor();
+        EmployeeCache cache = EmployeeCache.revalidating(
+                etag -> {
+                    if (etag == null) {
+                        return Optional.of(new Versioned<>(initial, "v1"));
+                    }
+                    refreshStarted.countDown();
+                    await(releaseRefresh);
+                    // fetched before the create below reached the upstream
+                    return Optional.of(new Versioned<>(initial, "v2"));
+                },
+                Duration.ZERO,
+                refresher);
+        Employee created = employee("vipin", 5000);
+
+        cache.get();
+        cache.get();
+        assertTrue(refreshStarted.await(5, TimeUnit.SECONDS));
+        cache.add(created);
+        releaseRefresh.countDown();
+        refresher.shutdown();
+        assertTrue(refresher.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals("v1", cache.etag());
+        assertEquals(Optional.of(created), cache.peekById(created.getId()));
+    }
+
+    private List<Employee> load(int count) {
+        loads.incrementAndGet();
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(i -> employee("Employee" + i, 1000 + i * 500))
+                .toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private Employee employee(String name, int salary) {
+        return Employee.builder()
+                .id(UUID.randomUUID())
+                .employeeName(name)
+                .employeeSalary(salary)
+                .build();
+    }
+}
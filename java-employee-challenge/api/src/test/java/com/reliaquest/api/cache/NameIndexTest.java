@@ -0,0 +1,99 @@
+package com.reliaquest.api.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.model.Employee;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class NameIndexTest {
+
+    private static final List<String> QUERIES = List.of(
+            "", "a", "AN", "ann", "Smith", "n s", "mith", "jo", "xyz", "\u00c9LO", "\u00e9", "Employee1", "ee1");
+
+    @Test
+    void shouldMatchLinearContains_whenSearchingIndexedNames() {
+        List<Employee> employees = generateEmployees(2_000);
+        NameIndex index = NameIndex.of(employees);
+
+        for (String query : QUERIES) {
+            assertEquals(linearSearch(employees, query), index.search(query), "query: " + query);
+        }
+    }
+
+    @Test
+    void shouldReflectAddsAndRemoves_whenSearching() {
+        List<Employee> employees = new ArrayList<>(generateEmployees(500));
+        NameIndex index = NameIndex.of(employees);
+
+        Employee added = employee("Annabelle Smithson");
+        index.add(added);
+        employees.add(added);
+        for (Employee removed : List.of(employees.get(3), employees.get(42), added)) {
+            index.remove(removed);
+            employees.remove(removed);
+        }
+
+        for (String query : QUERIES) {
+            assertEquals(linearSearch(employees, query), index.search(query), "query: " + query);
+        }
+    }
+
+    @Test
+    void shouldFoldDeltasIntoPostings_whenOverlayOutgrowsThreshold() {
+        List<Employee> employees = new ArrayList<>(generateEmployees(2_000));
+        NameIndex index = NameIndex.of(employees);
+        Random random = new Random(11);
+
+        for (int i = 1; i <= 5_000; i++) {
+            if (random.nextBoolean()) {
+                Employee added = employee("Added Smith " + i);
+                index.add(added);
+                employees.add(added);
+            } else {
+                index.remove(employees.remove(random.nextInt(employees.size())));
+            }
+            // compaction keeps the overlay within an eighth of the names last indexed
+            assertTrue(index.overlaySize() <= Math.max(64, employees.size() / 7 + 1), "after delta " + i);
+            if (i % 500 == 0) {
+                for (String query : QUERIES) {
+                    assertEquals(linearSearch(employees, query), index.search(query), "query: " + query);
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldSkipEmployees_whenNameIsNull() {
+        NameIndex index = NameIndex.of(List.of(employee(null), employee("Vipin Jain")));
+
+        assertEquals(1, index.search("").size());
+        assertEquals("Vipin Jain", index.search("IN J").get(0).getEmployeeName());
+    }
+
+    private List<Employee> linearSearch(List<Employee> employees, String query) {
+        return employees.stream()
+                .filter(e -> e.getEmployeeName() != null
+                        && e.getEmployeeName().toLowerCase().contains(query.toLowerCase()))
+                .toList();
+    }
+
+    private List<Employee> generateEmployees(int count) {
+        List<String> first = List.of("Ann", "Joanna", "\u00c9lodie", "John", "Anders", "Smitty");
+        List<String> last = List.of("Smith", "Johnson", "Annan", "Eloff", "Xu", "Nsimba");
+        Random random = new Random(7);
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            employees.add(employee(first.get(random.nextInt(first.size())) + " " + last.get(random.nextInt(last.size()))
+                    + (i % 10 == 0 ? " Employee" + i : "")));
+        }
+        return employees;
+    }
+
+    private Employee employee(String name) {
+        return Employee.builder().id(UUID.randomUUID()).employeeName(name).build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.reliaquest.api.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.model.Employee;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class SalaryIndexTest {
+
+    @Test
+    void shouldKeepEveryEmployee_whenSalariesAndIdsTie() {
+        Employee first = employee(null, "first", 1000);
+        Employee second = employee(null, "second", 1000);
+        Employee third = employee(null, "third", 1000);
+
+        SalaryIndex index = SalaryIndex.of(List.of(first, second, third));
+
+        assertEquals(List.of(first, second, third), index.top(10));
+        assertEquals(OptionalInt.of(1000), index.highestSalary());
+    }
+
+    @Test
+    void shouldOrderEqualSalariesById_thenByInsertion() {
+        UUID lower = new UUID(0, 1);
+        UUID higher = new UUID(0, 2);
+        Employee withoutId = employee(null, "none", 500);
+        Employee second = employee(higher, "higher", 500);
+        Employee first = employee(lower, "lower", 500);
+        Employee top = employee(UUID.randomUUID(), "top", 900);
+
+        SalaryIndex index = SalaryIndex.of(List.of(withoutId, second, first, top));
+
+        assertEquals(List.of(top, first, second, withoutId), index.top(10));
+    }
+
+    @Test
+    void shouldRemoveOnlyThatEmployee_whenOthersTieWithIt() {
+        Employee kept = employee(null, "kept", 1000);
+        Employee removed = employee(null, "removed", 1000);
+        Employee alsoKept = employee(null, "also kept", 1000);
+        SalaryIndex index = SalaryIndex.of(List.of(kept, removed, alsoKept));
+
+        index.remove(removed);
+
+        assertEquals(List.of(kept, alsoKept), index.top(10));
+    }
+
+    @Test
+    void shouldBeEmpty_whenLastEmployeeRemoved() {
+        Employee only = employee(null, "only", 1000);
+        SalaryIndex index = SalaryIndex.of(List.of(only));
+
+        index.remove(only);
+        index.remove(only);
+
+        assertEquals(OptionalInt.empty(), index.highestSalary());
+        assertTrue(index.top(10).isEmpty());
+    }
+
+    private static Employee employee(UUID id, String name, int salary) {
+        return Employee.builder()
+                .id(id)
+                .employeeName(name)
+                .employeeSalary(salary)
+                .build();
+    }
+}
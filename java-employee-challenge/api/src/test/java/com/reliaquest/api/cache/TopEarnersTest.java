@@ -0,0 +1,65 @@
+package com.reliaquest.api.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.model.Employee;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class TopEarnersTest {
+
+    @Test
+    void shouldMatchSalaryIndex_whenFedSameEmployees() {
+        Random random = new Random(42);
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            // narrow salary range so ties are common and the id tie-break is exercised
+            employees.add(employee("e" + i, 1000 + random.nextInt(50)));
+        }
+        TopEarners topEarners = new TopEarners(10);
+        employees.forEach(topEarners);
+
+        SalaryIndex index = SalaryIndex.of(employees);
+        assertEquals(index.top(10), topEarners.top());
+        assertEquals(index.highestSalary(), topEarners.highestSalary());
+        assertEquals(500, topEarners.seen());
+    }
+
+    @Test
+    void shouldReturnAll_whenFewerThanLimit() {
+        TopEarners topEarners = new TopEarners(10);
+        topEarners.accept(employee("low", 10));
+        topEarners.accept(employee("high", 30));
+        topEarners.accept(employee("mid", 20));
+
+        assertEquals(
+                List.of("high", "mid", "low"),
+                topEarners.top().stream().map(Employee::getEmployeeName).toList());
+        assertEquals(OptionalInt.of(30), topEarners.highestSalary());
+    }
+
+    @Test
+    void shouldBeEmpty_whenNothingSeen() {
+        TopEarners topEarners = new TopEarners(10);
+
+        assertTrue(topEarners.top().isEmpty());
+        assertTrue(topEarners.highestSalary().isEmpty());
+    }
+
+    @Test
+    void shouldRejectNonPositiveLimit() {
+        assertThrows(IllegalArgumentException.class, () -> new TopEarners(0));
+    }
+
+    private static Employee employee(String name, int salary) {
+        return Employee.builder()
+                .id(UUID.randomUUID())
+                .employeeName(name)
+                .employeeSalary(salary)
+                .build();
+    }
+}
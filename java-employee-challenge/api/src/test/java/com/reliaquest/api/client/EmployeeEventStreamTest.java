@@ -0,0 +1,176 @@
+package com.reliaquest.api.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeChange;
+import com.reliaquest.api.upstream.QuotaScheduler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+class EmployeeEventStreamTest {
+
+    private static final String REFUSED = "429";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final QuotaScheduler quotaScheduler =
+            new QuotaScheduler(Duration.ofSeconds(30), Duration.ofMillis(10), Duration.ofSeconds(2));
+    private final List<String> lastEventIds = new CopyOnWriteArrayList<>();
+    private final List<String> responses = new CopyOnWriteArrayList<>();
+    private final RecordingListener listener = new RecordingListener();
+    private final CountDownLatch twoConnections = new CountDownLatch(2);
+
+    private HttpServer server;
+    private EmployeeEventStream stream;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/employee/events", exchange -> {
+            lastEventIds.add(exchange.getRequestHeaders().getFirst("Last-Event-ID"));
+            int connection = lastEventIds.size() - 1;
+            String body = connection < responses.size() ? responses.get(connection) : ": heartbeat\n\n";
+            if (REFUSED.equals(body)) {
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                exchange.sendResponseHeaders(429, -1);
+                exchange.close();
+                twoConnections.countDown();
+                return;
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+            twoConnections.countDown();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    void shouldResumeFromLastAppliedChange_inOneBatch() throws Exception {
+        listener.etag = "\"3\"";
+        responses.add(change(4) + change(5) + event("ready", "\"5\"", "{}"));
+
+        start();
+
+        assertTrue(twoConnections.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("\"3\"", "\"5\""), lastEventIds.subList(0, 2));
+        assertEquals(1, listener.batches.size());
+        assertEquals(
+                List.of(4L, 5L),
+                listener.batches.get(0).stream().map(EmployeeChange::version).toList());
+        assertTrue(listener.liveStates.contains(true));
+    }
+
+    @Test
+    void shouldReloadBeforeReconnecting_whenServerAsksForResync() throws Exception {
+        listener.etag = "\"3\"";
+        listener.resyncEtag = "\"9\"";
+        responses.add(event("resync", null, "{}"));
+
+        start();
+
+        assertTrue(twoConnections.await(5, TimeUnit.SECONDS));
+        assertEquals(1, listener.resyncs);
+        assertEquals(List.of("\"3\"", "\"9\""), lastEventIds.subList(0, 2));
+        assertTrue(listener.batches.isEmpty());
+    }
+
+    @Test
+    void shouldConnectThroughQuotaScheduler_soRefusalTeachesItTheRefillInterval() throws Exception {
+        listener.etag = "\"3\"";
+        responses.add(REFUSED);
+
+        start();
+
+        assertTrue(twoConnections.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("\"3\"", "\"3\""), lastEventIds.subList(0, 2));
+        assertEquals(Duration.ofSeconds(1), quotaScheduler.learnedRefillInterval());
+    }
+
+    private void start() {
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+                .build();
+        stream = new EmployeeEventStream(
+                webClient,
+                quotaScheduler,
+                objectMapper,
+                listener,
+                Duration.ofSeconds(5),
+                Duration.ofMillis(10),
+                Duration.ofMillis(20),
+                256,
+                Duration.ofMillis(200));
+        stream.start();
+    }
+
+    private String change(long version) throws IOException {
+        Employee employee = Employee.builder()
+                .id(UUID.randomUUID())
+                .employeeName("Employee " + version)
+                .build();
+        String data =
+                objectMapper.writeValueAsString(new EmployeeChange(version, EmployeeChange.Type.CREATED, employee));
+        return event("change", "\"" + version + "\"", data);
+    }
+
+    private static String event(String name, String id, String data) {
+        return "event:" + name + "\n" + (id == null ? "" : "id:" + id + "\n") + "data:" + data + "\n\n";
+    }
+
+    private static class RecordingListener implements EmployeeEventStream.Listener {
+
+        private final List<List<EmployeeChange>> batches = new CopyOnWriteArrayList<>();
+        private final List<Boolean> liveStates = new CopyOnWriteArrayList<>();
+        private volatile String etag;
+        private volatile String resyncEtag;
+        private volatile int resyncs;
+
+        @Override
+        public String lastEventId() {
+            return etag;
+        }
+
+        @Override
+        public void onChanges(List<EmployeeChange> changes, String etag) {
+            batches.add(changes);
+            this.etag = etag;
+        }
+
+        @Override
+        public void onLive(boolean live) {
+            liveStates.add(live);
+        }
+
+        @Override
+        public void onResync() {
+            resyncs++;
+            etag = resyncEtag;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.reliaquest.api.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.exception.ExternalApiException;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeePage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+
+class EmployeePageIteratorTest {
+
+    private final List<String> requestedCursors = new ArrayList<>();
+
+    @Test
+    void shouldWalkAllPages_whenCursorsChain() {
+        Map<String, EmployeePage> pages = Map.of(
+                "start", new EmployeePage(List.of(employee("a"), employee("b")), "1"),
+                "1", new EmployeePage(List.of(employee("c"), employee("d")), "3"),
+                "3", new EmployeePage(List.of(employee("e")), null));
+        EmployeePageIterator iterator = new EmployeePageIterator(fetcher(pages), 2);
+
+        List<String> names = new ArrayList<>();
+        iterator.forEachRemaining(employee -> names.add(employee.getEmployeeName()));
+
+        assertEquals(List.of("a", "b", "c", "d", "e"), names);
+        assertEquals(List.of("start", "1", "3"), requestedCursors);
+    }
+
+    @Test
+    void shouldFetchNextPage_onlyWhenPreviousPageIsConsumed() {
+        Map<String, EmployeePage> pages = Map.of(
+                "start", new EmployeePage(List.of(employee("a"), employee("b")), "1"),
+                "1", new EmployeePage(List.of(employee("c")), null));
+        EmployeePageIterator iterator = new EmployeePageIterator(fetcher(pages), 2);
+
+        assertTrue(requestedCursors.isEmpty());
+        iterator.next();
+        iterator.next();
+        assertEquals(List.of("start"), requestedCursors);
+        iterator.next();
+        assertEquals(List.of("start", "1"), requestedCursors);
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    void shouldSkipEmptyPages_whenCursorAdvances() {
+        Map<String, EmployeePage> pages = Map.of(
+                "start", new EmployeePage(List.of(), "1"),
+                "1", new EmployeePage(List.of(employee("a")), null));
+        EmployeePageIterator iterator = new EmployeePageIterator(fetcher(pages), 2);
+
+        assertEquals("a", iterator.next().getEmployeeName());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    void shouldThrow_whenCursorDoesNotAdvance() {
+        Map<String, EmployeePage> pages = Map.of(
+                "start", new EmployeePage(List.of(), "1"),
+                "1", new EmployeePage(List.of(), "1"));
+        EmployeePageIterator iterator = new EmployeePageIterator(fetcher(pages), 2);
+
+        assertThrows(ExternalApiException.class, iterator::hasNext);
+    }
+
+    @Test
+    void shouldContinueFromCursor_whenFirstPageAlreadyFetched() {
+        Map<String, EmployeePage> pages = Map.of("1", new EmployeePage(List.of(employee("c")), null));
+        EmployeePage first = new EmployeePage(List.of(employee("a"), employee("b")), "1");
+        EmployeePageIterator iterator = new EmployeePageIterator(fetcher(pages), 2, first);
+
+        List<String> names = new ArrayList<>();
+        iterator.forEachRemaining(employee -> names.add(employee.getEmployeeName()));
+
+        assertEquals(List.of("a", "b", "c"), names);
+        assertEquals(List.of("1"), requestedCursors);
+    }
+
+    private EmployeePageIterator.PageFetcher fetcher(Map<String, EmployeePage> pages) {
+        return (cursor, limit) -> {
+            String key = cursor == null ? "start" : cursor;
+            requestedCursors.add(key);
+            return pages.get(key);
+        };
+    }
+
+    private static Employee employee(String name) {
+        return Employee.builder().employeeName(name).build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.reliaquest.api.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.exception.EmployeeNotCreatedException;
+import com.reliaquest.api.exception.EmployeeNotFoundException;
+import com.reliaquest.api.exception.ExternalApiException;
+import com.reliaquest.api.exception.TooManyRequestsException;
+import com.reliaquest.api.model.CreateEmployeeInput;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+class RestTemplateEmployeeClientTest {
+
+    private static final String BASE_URL = "http://mock/api/v1";
+
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final MockRestServiceServer server =
+            MockRestServiceServer.bindTo(restTemplate).build();
+    private final RestTemplateEmployeeClient client = new RestTemplateEmployeeClient();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(client, "mockApiBaseUrl", BASE_URL);
+        ReflectionTestUtils.setField(client, "restTemplate", restTemplate);
+        ReflectionTestUtils.setField(client, "objectMapper", new ObjectMapper());
+    }
+
+    @Test
+    void shouldThrowTooManyRequests_withRetryAfter_when429() {
+        server.expect(requestTo(BASE_URL + "/employee/42"))
+                .andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS).headers(retryAfter("7")));
+
+        TooManyRequestsException ex =
+                assertThrows(TooManyRequestsException.class, () -> client.fetchEmployeeById("42"));
+
+        assertEquals(Optional.of(Duration.ofSeconds(7)), ex.getRetryAfter());
+    }
+
+    @Test
+    void shouldThrowTooManyRequests_whenListCallRefused() {
+        server.expect(requestTo(BASE_URL + "/employee"))
+                .andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS).headers(retryAfter("3")));
+
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class, () -> client.fetchEmployees(null));
+
+        assertEquals(Optional.of(Duration.ofSeconds(3)), ex.getRetryAfter());
+    }
+
+    @Test
+    void shouldThrowNotFound_when404OnLookupAndDelete() {
+        server.expect(requestTo(BASE_URL + "/employee/42")).andRespond(withStatus(HttpStatus.NOT_FOUND));
+        server.expect(method(HttpMethod.DELETE)).andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        assertThrows(EmployeeNotFoundException.class, () -> client.fetchEmployeeById("42"));
+        assertThrows(EmployeeNotFoundException.class, () -> client.deleteEmployeeByName("Jane Doe"));
+    }
+
+    @Test
+    void shouldThrowNotCreated_when404OnCreate() {
+        server.expect(method(HttpMethod.POST)).andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        assertThrows(EmployeeNotCreatedException.class, () -> client.createEmployee(input()));
+    }
+
+    @Test
+    void shouldThrowExternalApiException_forOtherStatuses() {
+        server.expect(requestTo(BASE_URL + "/employee/42")).andRespond(withServerError());
+        server.expect(method(HttpMethod.POST)).andRespond(withBadRequest());
+        server.expect(method(HttpMethod.DELETE)).andRespond(withStatus(HttpStatus.BAD_GATEWAY));
+
+        assertThrows(ExternalApiException.class, () -> client.fetchEmployeeById("42"));
+        assertThrows(ExternalApiException.class, () -> client.createEmployee(input()));
+        assertThrows(ExternalApiException.class, () -> client.deleteEmployeeByName("Jane Doe"));
+    }
+
+    @Test
+    void shouldThrowExternalApiException_whenNoResponse() {
+        server.expect(requestTo(BASE_URL + "/employee/42")).andRespond(withException(new IOException("refused")));
+
+        assertThrows(ExternalApiException.class, () -> client.fetchEmployeeById("42"));
+    }
+
+    private static HttpHeaders retryAfter(String value) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, value);
+        return headers;
+    }
+
+    private static CreateEmployeeInput input() {
+        return new CreateEmployeeInput("Jane Doe", 50_000, 30, "Engineer");
+    }
+}
@@ -0,0 +1,58 @@
+package com.reliaquest.api.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+class RetryAfterTest {
+
+    @Test
+    void shouldParseDelaySeconds() {
+        assertEquals(Duration.ofSeconds(42), RetryAfter.from(headers("42")));
+    }
+
+    @Test
+    void shouldParseHttpDate_whenInFuture() {
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(120));
+
+        Duration delay = RetryAfter.from(headers(date));
+
+        assertTrue(delay.compareTo(Duration.ofSeconds(110)) > 0 && delay.compareTo(Duration.ofSeconds(121)) < 0);
+    }
+
+    @Test
+    void shouldReturnZero_whenHttpDateInPast() {
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                ZonedDateTime.now(ZoneOffset.UTC).minusSeconds(60));
+
+        assertEquals(Duration.ZERO, RetryAfter.from(headers(date)));
+    }
+
+    @Test
+    void shouldReturnNull_whenMissingOrInvalid() {
+        assertNull(RetryAfter.from(new HttpHeaders()));
+        assertNull(RetryAfter.from(headers("soon")));
+        assertNull(RetryAfter.from(headers("-5")));
+        assertNull(RetryAfter.from(null));
+    }
+
+    @Test
+    void shouldRoundUpToWholeSeconds_whenFormattingHeader() {
+        assertEquals("0", RetryAfter.toHeaderSeconds(Duration.ZERO));
+        assertEquals("1", RetryAfter.toHeaderSeconds(Duration.ofMillis(1)));
+        assertEquals("2", RetryAfter.toHeaderSeconds(Duration.ofMillis(1001)));
+        assertEquals("30", RetryAfter.toHeaderSeconds(Duration.ofSeconds(30)));
+    }
+
+    private static HttpHeaders headers(String retryAfter) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, retryAfter);
+        return headers;
+    }
+}
@@ -0,0 +1,141 @@
+package com.reliaquest.api.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.reliaquest.api.exception.BatchPartiallyAppliedException;
+import com.reliaquest.api.exception.ExternalApiException;
+import com.reliaquest.api.exception.GlobalExceptionHandler;
+import com.reliaquest.api.model.CreateEmployeeInput;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.service.EmployeeService;
+import java.util.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class EmployeeBatchControllerTest {
+
+    @Mock
+    private EmployeeService employeeService;
+
+    @InjectMocks
+    private EmployeeBatchController controller;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void shouldReturnCreatedEmployees_whenBatchCreated() {
+        List<CreateEmployeeInput> inputs = List.of(
+                CreateEmployeeInput.builder()
+                        .name("a")
+                        .salary(1000)
+                        .age(30)
+                        .title("dev")
+                        .build(),
+                CreateEmployeeInput.builder()
+                        .name("b")
+                        .salary(2000)
+                        .age(40)
+                        .title("qa")
+                        .build());
+        List<Employee> created = List.of(
+                Employee.builder().employeeName("a").build(),
+                Employee.builder().employeeName("b").build());
+        when(employeeService.createEmployees(inputs)).thenReturn(created);
+
+        ResponseEntity<List<Employee>> response = controller.createEmployees(inputs);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(created, response.getBody());
+    }
+
+    @Test
+    void shouldReturnFoundEmployees_whenIdsLookedUp() {
+        Employee employee = Employee.builder().employeeName("a").build();
+        when(employeeService.getEmployeesByIds(List.of("1", "2"))).thenReturn(List.of(employee));
+
+        ResponseEntity<List<Employee>> response = controller.getEmployeesByIds(List.of("1", "2"));
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(List.of(employee), response.getBody());
+    }
+
+    @Test
+    void shouldReturnDeletedNames_whenBatchDeleted() {
+        when(employeeService.deleteEmployeesById(List.of("1", "2"))).thenReturn(List.of("a"));
+
+        ResponseEntity<List<String>> response = controller.deleteEmployeesById(List.of("1", "2"));
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(List.of("a"), response.getBody());
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenBatchIsEmpty() {
+        assertEquals(400, controller.createEmployees(List.of()).getStatusCodeValue());
+        assertEquals(400, controller.getEmployeesByIds(List.of()).getStatusCodeValue());
+        assertEquals(400, controller.deleteEmployeesById(List.of()).getStatusCodeValue());
+        verifyNoInteractions(employeeService);
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenBatchLargerThanMaxSize() throws Exception {
+        String employee = "{\"name\":\"a\",\"salary\":1000,\"age\":30,\"title\":\"dev\"}";
+        String body = "[" + String.join(",", Collections.nCopies(EmployeeBatchController.MAX_SIZE + 1, employee)) + "]";
+
+        mockMvc.perform(post("/api/employees/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(employeeService);
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenBatchHasInvalidEmployee() throws Exception {
+        String body = "[{\"name\":\"a\",\"salary\":1000,\"age\":30,\"title\":\"dev\"},"
+                + "{\"name\":\"\",\"salary\":-1,\"age\":30,\"title\":\"dev\"}]";
+
+        mockMvc.perform(post("/api/employees/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(employeeService);
+    }
+
+    @Test
+    void shouldReturnCreatedPart_whenBatchPartiallyApplied() throws Exception {
+        Employee created = Employee.builder().employeeName("a").build();
+        when(employeeService.createEmployees(anyList()))
+                .thenThrow(new BatchPartiallyAppliedException(
+                        "Created 1 of 2 employees before: upstream failed",
+                        List.of(created),
+                        new ExternalApiException("upstream failed", null)));
+        String body = "[{\"name\":\"a\",\"salary\":1000,\"age\":30,\"title\":\"dev\"},"
+                + "{\"name\":\"b\",\"salary\":2000,\"age\":40,\"title\":\"qa\"}]";
+
+        mockMvc.perform(post("/api/employees/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadGateway())
+                .andExpect(jsonPath("$.data[0].employee_name").value("a"))
+                .andExpect(jsonPath("$.error").value("Created 1 of 2 employees before: upstream failed"));
+    }
+}
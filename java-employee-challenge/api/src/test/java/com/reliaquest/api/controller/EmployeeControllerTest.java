@@ -7,6 +7,7 @@ import com.reliaquest.api.model.CreateEmployeeInput;
 import com.reliaquest.api.model.Employee;
 import com.reliaquest.api.service.EmployeeService;
 import java.util.*;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -104,6 +105,7 @@ class EmployeeControllerTest {
     void shouldReturnMatchingEmployees_whenNameContainsSearchString() {
         List<Employee> mockList = generateMockEmployees(5);
         when(employeeService.fetchEmployeesFromMockApi()).thenReturn(mockList);
+        when(employeeService.searchEmployeesByName("Employee1")).thenReturn(List.of(mockList.get(0)));
 
         ResponseEntity<List<Employee>> response = controller.getEmployeesByNameSearch("Employee1");
 
@@ -124,8 +126,7 @@ class EmployeeControllerTest {
 
     @Test
     void shouldReturnHighestSalary_whenEmployeesExist() {
-        List<Employee> mockList = generateMockEmployees(2);
-        when(employeeService.fetchEmployeesFromMockApi()).thenReturn(mockList);
+        when(employeeService.findHighestSalary()).thenReturn(OptionalInt.of(2000));
 
         ResponseEntity<Integer> response = controller.getHighestSalaryOfEmployees();
 
@@ -135,7 +136,7 @@ class EmployeeControllerTest {
 
     @Test
     void shouldReturnNotFound_whenGettingHighestSalaryAndNoEmployeesExist() {
-        when(employeeService.fetchEmployeesFromMockApi()).thenReturn(Collections.emptyList());
+        when(employeeService.findHighestSalary()).thenReturn(OptionalInt.empty());
 
         ResponseEntity<Integer> response = controller.getHighestSalaryOfEmployees();
 
@@ -145,9 +146,12 @@ class EmployeeControllerTest {
 
     @Test
     void shouldReturnTopTenHighestPaidEmployeeNames() {
-        List<Employee> mockList = generateMockEmployees(20);
+        List<String> topTen = IntStream.iterate(20, i -> i - 1)
+                .limit(10)
+                .mapToObj(i -> "Employee" + i)
+                .toList();
 
-        when(employeeService.fetchEmployeesFromMockApi()).thenReturn(mockList);
+        when(employeeService.findTopEarningEmployeeNames(10)).thenReturn(topTen);
 
         ResponseEntity<List<String>> response = controller.getTopTenHighestEarningEmployeeNames();
 
@@ -158,7 +162,7 @@ class EmployeeControllerTest {
 
     @Test
     void shouldReturnNotFound_whenGettingTopTenAndNoEmployeesExist() {
-        when(employeeService.fetchEmployeesFromMockApi()).thenReturn(Collections.emptyList());
+        when(employeeService.findTopEarningEmployeeNames(10)).thenReturn(Collections.emptyList());
 
         ResponseEntity<List<String>> response = controller.getTopTenHighestEarningEmployeeNames();
 
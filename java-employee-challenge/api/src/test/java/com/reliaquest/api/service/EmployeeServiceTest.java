@@ -0,0 +1,172 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.reliaquest.api.client.EmployeeClient;
+import com.reliaquest.api.exception.BatchPartiallyAppliedException;
+import com.reliaquest.api.exception.ExternalApiException;
+import com.reliaquest.api.model.CreateEmployeeInput;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeAggregates;
+import com.reliaquest.api.upstream.Bulkhead;
+import com.reliaquest.api.upstream.CircuitBreaker;
+import com.reliaquest.api.upstream.HedgedRetrier;
+import com.reliaquest.api.upstream.QuotaScheduler;
+import com.reliaquest.api.upstream.RetryBudget;
+import com.reliaquest.api.upstream.UpstreamMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class EmployeeServiceTest {
+
+    private final EmployeeClient employeeClient = mock(EmployeeClient.class);
+    private final EmployeeService service = new EmployeeService();
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(service, "cacheTtl", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(service, "negativeCacheTtl", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(service, "cacheDeltas", false);
+        ReflectionTestUtils.setField(service, "eventsEnabled", false);
+        ReflectionTestUtils.setField(service, "streamColdAggregates", true);
+        ReflectionTestUtils.setField(service, "serverAggregates", true);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "employeeClient", employeeClient);
+        // background loads never run, so the snapshot stays cold for every call
+        TaskExecutor neverRuns = task -> {};
+        ReflectionTestUtils.setField(service, "taskExecutor", neverRuns);
+        ReflectionTestUtils.setField(
+                service,
+                "quotaScheduler",
+                new QuotaScheduler(Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(1)));
+        ReflectionTestUtils.setField(service, "upstreamMetrics", new UpstreamMetrics(registry));
+        ReflectionTestUtils.setField(
+                service,
+                "upstreamCircuitBreaker",
+                new CircuitBreaker("test", 20, 5, 50, Duration.ofSeconds(10), (from, to) -> {}));
+        ReflectionTestUtils.setField(service, "upstreamReadBulkhead", new Bulkhead("read", 4, Duration.ZERO));
+        ReflectionTestUtils.setField(service, "upstreamWriteBulkhead", new Bulkhead("write", 4, Duration.ZERO));
+        ReflectionTestUtils.setField(
+                service,
+                "upstreamHedgedRetrier",
+                new HedgedRetrier(
+                        new RetryBudget(0.1, 10), 0, Duration.ZERO, Duration.ZERO, null, null, Duration.ZERO));
+        ReflectionTestUtils.setField(service, "meterRegistry", registry);
+        service.initCache();
+
+        doAnswer(invocation -> {
+                    Consumer<Employee> sink = invocation.getArgument(0);
+                    List.of(employee("low", 100), employee("high", 300), employee("mid", 200))
+                            .forEach(sink);
+                    return 3L;
+                })
+                .when(employeeClient)
+                .streamEmployees(any());
+    }
+
+    @Test
+    void shouldAnswerFromServerAggregates_whenSnapshotCold() {
+        when(employeeClient.fetchAggregates()).thenReturn(Optional.of(new EmployeeAggregates(3, 300)));
+        when(employeeClient.fetchTopEarners(2))
+                .thenReturn(Optional.of(List.of(employee("high", 300), employee("mid", 200))));
+
+        assertEquals(OptionalInt.of(300), service.findHighestSalary());
+        assertEquals(List.of("high", "mid"), service.findTopEarningEmployeeNames(2));
+        verify(employeeClient, never()).streamEmployees(any());
+    }
+
+    @Test
+    void shouldStreamAndStopAskingServer_whenAggregatesAnswer404() {
+        when(employeeClient.fetchAggregates()).thenReturn(Optional.empty());
+
+        assertEquals(OptionalInt.of(300), service.findHighestSalary());
+        assertEquals(List.of("high", "mid"), service.findTopEarningEmployeeNames(2));
+
+        verify(employeeClient, times(1)).fetchAggregates();
+        verify(employeeClient, never()).fetchTopEarners(anyInt());
+        verify(employeeClient, times(2)).streamEmployees(any());
+    }
+
+    @Test
+    void shouldStreamOnceButKeepAskingServer_whenAggregateCallFails() {
+        when(employeeClient.fetchAggregates())
+                .thenThrow(new ExternalApiException("Mock API answered /employee/aggregates without data", null))
+                .thenReturn(Optional.of(new EmployeeAggregates(3, 300)));
+        when(employeeClient.fetchTopEarners(2))
+                .thenReturn(Optional.of(List.of(employee("high", 300), employee("mid", 200))));
+
+        assertEquals(OptionalInt.of(300), service.findHighestSalary());
+        assertEquals(OptionalInt.of(300), service.findHighestSalary());
+        assertEquals(List.of("high", "mid"), service.findTopEarningEmployeeNames(2));
+
+        verify(employeeClient, times(2)).fetchAggregates();
+        verify(employeeClient, times(1)).fetchTopEarners(2);
+        verify(employeeClient, times(1)).streamEmployees(any());
+    }
+
+    @Test
+    void shouldReportCreatedEmployees_whenLaterBatchRequestFails() {
+        List<CreateEmployeeInput> inputs = List.of(input("a"), input("b"), input("c"));
+        List<Employee> firstRequest = List.of(employee("a", 1000), employee("b", 1000));
+        when(employeeClient.createEmployees(inputs.subList(0, 2))).thenReturn(firstRequest);
+        when(employeeClient.createEmployees(inputs.subList(2, 3)))
+                .thenThrow(new ExternalApiException("Error creating employees in mock API: 500", null));
+
+        BatchPartiallyAppliedException ex =
+                assertThrows(BatchPartiallyAppliedException.class, () -> service.createEmployees(inputs));
+
+        assertEquals(firstRequest, ex.getApplied());
+        assertInstanceOf(ExternalApiException.class, ex.getCause());
+    }
+
+    @Test
+    void shouldDeleteByIdUpstream_skippingMalformedIds() {
+        Employee twin = employee("twin", 200);
+        String id = twin.getId().toString();
+        when(employeeClient.deleteEmployeesById(List.of(id))).thenReturn(List.of(twin));
+
+        assertEquals(List.of("twin"), service.deleteEmployeesById(List.of(id, "not-an-id", id)));
+
+        // no name lookup: a namesake of the deleted employee cannot be hit
+        verify(employeeClient).deleteEmployeesById(List.of(id));
+        verifyNoMoreInteractions(employeeClient);
+    }
+
+    @Test
+    void shouldRethrowFailure_whenFirstBatchRequestFails() {
+        ExternalApiException failure = new ExternalApiException("Error creating employees in mock API: 500", null);
+        when(employeeClient.createEmployees(anyList())).thenThrow(failure);
+
+        List<CreateEmployeeInput> inputs = List.of(input("a"));
+
+        assertSame(failure, assertThrows(ExternalApiException.class, () -> service.createEmployees(inputs)));
+    }
+
+    private static CreateEmployeeInput input(String name) {
+        return CreateEmployeeInput.builder()
+                .name(name)
+                .salary(1000)
+                .age(30)
+                .title("dev")
+                .build();
+    }
+
+    private static Employee employee(String name, int salary) {
+        return Employee.builder()
+                .id(UUID.randomUUID())
+                .employeeName(name)
+                .employeeSalary(salary)
+                .build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.reliaquest.api.upstream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.exception.UpstreamUnavailableException;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class BulkheadTest {
+
+    private final Bulkhead bulkhead = new Bulkhead("test", 2, Duration.ZERO);
+
+    @Test
+    void shouldRejectCall_whenAllSlotsTaken() {
+        String result = bulkhead.execute(() -> bulkhead.execute(() -> {
+            assertEquals(2, bulkhead.inFlight());
+            assertThrows(UpstreamUnavailableException.class, () -> bulkhead.execute(() -> "third"));
+            return "ok";
+        }));
+
+        assertEquals("ok", result);
+        assertEquals(1, bulkhead.rejectedCount());
+    }
+
+    @Test
+    void shouldReleaseSlot_whenCallFails() {
+        assertThrows(
+                IllegalStateException.class,
+                () -> bulkhead.execute(() -> {
+                    throw new IllegalStateException("boom");
+                }));
+
+        assertEquals(0, bulkhead.inFlight());
+        assertEquals("ok", bulkhead.execute(() -> "ok"));
+    }
+}
@@ -0,0 +1,193 @@
+package com.reliaquest.api.upstream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.exception.EmployeeNotFoundException;
+import com.reliaquest.api.exception.ExternalApiException;
+import com.reliaquest.api.exception.QuotaExhaustedException;
+import com.reliaquest.api.exception.TooManyRequestsException;
+import com.reliaquest.api.exception.UpstreamUnavailableException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final List<String> transitions = new ArrayList<>();
+
+    private final CircuitBreaker breaker = new CircuitBreaker(
+            "test", 10, 4, 50, Duration.ofSeconds(10), (from, to) -> transitions.add(from + "->" + to), clock::get);
+
+    @Test
+    void shouldOpenAndFailFast_whenFailureRateReached() {
+        callAccepted(2);
+        callFailed(2);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        UpstreamUnavailableException refused =
+                assertThrows(UpstreamUnavailableException.class, () -> breaker.execute(this::accepted));
+        assertEquals(Duration.ofSeconds(10), refused.getRetryAfter().orElseThrow());
+        assertEquals(4, upstreamCalls.get());
+        assertEquals(List.of("CLOSED->OPEN"), transitions);
+    }
+
+    @Test
+    void shouldStayClosed_whenFailureRateBelowThreshold() {
+        callAccepted(3);
+        callFailed(2);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals("ok", breaker.execute(this::accepted));
+    }
+
+    @Test
+    void shouldNotCountNotFound_asFailure() {
+        for (int i = 0; i < 5; i++) {
+            assertThrows(
+                    EmployeeNotFoundException.class,
+                    () -> breaker.execute(() -> {
+                        upstreamCalls.incrementAndGet();
+                        throw new EmployeeNotFoundException("missing");
+                    }));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void shouldNotCountQuotaExhausted_asFailure() {
+        callAccepted(2);
+        for (int i = 0; i < 5; i++) {
+            assertThrows(
+                    QuotaExhaustedException.class,
+                    () -> breaker.execute(() -> {
+                        throw new QuotaExhaustedException("Upstream quota exhausted", null, Duration.ofSeconds(5));
+                    }));
+        }
+        callFailed(1);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertFalse(CircuitBreaker.isFailure(new QuotaExhaustedException("Upstream quota exhausted", null, null)));
+        assertTrue(CircuitBreaker.isFailure(new TooManyRequestsException("Rate limit exceeded", null)));
+    }
+
+    @Test
+    void shouldReleaseProbe_whenProbeRefusedByQuotaScheduler() {
+        callFailed(4);
+        advance(Duration.ofSeconds(10));
+
+        assertThrows(
+                QuotaExhaustedException.class,
+                () -> breaker.execute(() -> {
+                    throw new QuotaExhaustedException("Upstream quota exhausted", null, Duration.ofSeconds(1));
+                }));
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertEquals("ok", breaker.execute(this::accepted));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void shouldClose_whenProbeSucceeds() {
+        callFailed(4);
+
+        advance(Duration.ofSeconds(10));
+        assertEquals("ok", breaker.execute(this::accepted));
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), transitions);
+    }
+
+    @Test
+    void shouldReopen_whenProbeFails() {
+        callFailed(4);
+
+        advance(Duration.ofSeconds(10));
+        callFailed(1);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertThrows(UpstreamUnavailableException.class, () -> breaker.execute(this::accepted));
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->OPEN"), transitions);
+    }
+
+    @Test
+    void shouldLetOneProbeThrough_whenHalfOpen() {
+        callFailed(4);
+        advance(Duration.ofSeconds(10));
+
+        String result = breaker.execute(() -> {
+            assertThrows(UpstreamUnavailableException.class, () -> breaker.execute(this::accepted));
+            return accepted();
+        });
+
+        assertEquals("ok", result);
+        assertEquals(4 + 1, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldStayOpenUntilRetryAfter_whenTrippedByTooManyRequests() {
+        callAccepted(2);
+        callFailed(1);
+        assertThrows(
+                TooManyRequestsException.class,
+                () -> breaker.execute(() -> {
+                    throw new TooManyRequestsException("Rate limit exceeded", null, Duration.ofSeconds(25));
+                }));
+
+        advance(Duration.ofSeconds(24));
+        UpstreamUnavailableException refused =
+                assertThrows(UpstreamUnavailableException.class, () -> breaker.execute(this::accepted));
+        assertEquals(Duration.ofSeconds(1), refused.getRetryAfter().orElseThrow());
+
+        advance(Duration.ofSeconds(1));
+        assertEquals("ok", breaker.execute(this::accepted));
+    }
+
+    @Test
+    void shouldReleaseProbe_whenProbeRefusedByBulkhead() {
+        callFailed(4);
+        advance(Duration.ofSeconds(10));
+
+        assertThrows(
+                UpstreamUnavailableException.class,
+                () -> breaker.execute(() -> {
+                    throw new UpstreamUnavailableException("bulkhead full", Duration.ofSeconds(1));
+                }));
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertEquals("ok", breaker.execute(this::accepted));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    private void callAccepted(int count) {
+        for (int i = 0; i < count; i++) {
+            assertEquals("ok", breaker.execute(this::accepted));
+        }
+    }
+
+    private void callFailed(int count) {
+        for (int i = 0; i < count; i++) {
+            assertThrows(
+                    ExternalApiException.class,
+                    () -> breaker.execute(() -> {
+                        upstreamCalls.incrementAndGet();
+                        throw new ExternalApiException("unreachable", new ResourceAccessException("refused"));
+                    }));
+        }
+    }
+
+    private String accepted() {
+        upstreamCalls.incrementAndGet();
+        return "ok";
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+}
@@ -0,0 +1,248 @@
+package com.reliaquest.api.upstream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.exception.EmployeeNotFoundException;
+import com.reliaquest.api.exception.ExternalApiException;
+import com.reliaquest.api.exception.TooManyRequestsException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+class HedgedRetrierTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger attempts = new AtomicInteger();
+    private final Bulkhead bulkhead = new Bulkhead("read", 2, Duration.ZERO);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldRetry_whenUpstreamUnreachable() {
+        HedgedRetrier retrier = retrier(new RetryBudget(0.1, 10), null);
+
+        String result = retrier.execute("GET /employee", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw unreachable();
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2, retrier.retryCount());
+    }
+
+    @Test
+    void shouldRetry_whenUpstreamAnswers5xx() {
+        HedgedRetrier retrier = retrier(new RetryBudget(0.1, 10), null);
+
+        assertThrows(
+                ExternalApiException.class,
+                () -> retrier.execute("GET /employee", () -> {
+                    attempts.incrementAndGet();
+                    throw new ExternalApiException(
+                            "upstream failed",
+                            HttpServerErrorException.create(
+                                    HttpStatus.BAD_GATEWAY, "Bad Gateway", null, new byte[0], StandardCharsets.UTF_8));
+                }));
+
+        assertEquals(1 + 2, attempts.get());
+    }
+
+    @Test
+    void shouldNotRetry_whenRateLimitedOrNotFound() {
+        HedgedRetrier retrier = retrier(new RetryBudget(0.1, 10), null);
+
+        assertThrows(
+                TooManyRequestsException.class,
+                () -> retrier.execute("GET /employee", () -> {
+                    attempts.incrementAndGet();
+                    throw new TooManyRequestsException("Rate limit exceeded", null);
+                }));
+        assertThrows(
+                EmployeeNotFoundException.class,
+                () -> retrier.execute("GET /employee/{id}", () -> {
+                    attempts.incrementAndGet();
+                    throw new EmployeeNotFoundException("missing");
+                }));
+
+        assertEquals(2, attempts.get());
+        assertEquals(0, retrier.retryCount());
+    }
+
+    @Test
+    void shouldStopRetrying_whenBudgetExhausted() {
+        RetryBudget budget = new RetryBudget(0, 1);
+        HedgedRetrier retrier = retrier(budget, null);
+
+        assertThrows(
+                ExternalApiException.class,
+                () -> retrier.execute("GET /employee", () -> {
+                    attempts.incrementAndGet();
+                    throw unreachable();
+                }));
+
+        assertEquals(2, attempts.get());
+        assertEquals(1, budget.refusedCount());
+    }
+
+    @Test
+    void shouldHedge_whenAttemptSlowerThanP95() throws InterruptedException {
+        HedgedRetrier retrier = retrier(new RetryBudget(0.1, 10), executor);
+        warmUp(retrier);
+        CountDownLatch slowAttempt = new CountDownLatch(1);
+
+        String result = retrier.execute("GET /employee/{id}", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                await(slowAttempt);
+                return "primary";
+            }
+            return "hedge";
+        });
+        slowAttempt.countDown();
+
+        assertEquals("hedge", result);
+        assertEquals(1, retrier.hedgeCount());
+        assertEquals(1, retrier.hedgeWinCount());
+    }
+
+    @Test
+    void shouldNotHedge_whenBudgetEmpty() {
+        RetryBudget budget = new RetryBudget(0, 1);
+        HedgedRetrier retrier = retrier(budget, executor);
+        warmUp(retrier);
+        budget.tryWithdraw();
+
+        String result = retrier.execute("GET /employee/{id}", () -> {
+            attempts.incrementAndGet();
+            sleep(50);
+            return "primary";
+        });
+
+        assertEquals("primary", result);
+        assertEquals(1, attempts.get());
+        assertEquals(0, retrier.hedgeCount());
+    }
+
+    @Test
+    void shouldReturnPrimaryFailure_whenBothAttemptsFail() {
+        HedgedRetrier retrier = new HedgedRetrier(
+                new RetryBudget(0.1, 10), 0, Duration.ZERO, Duration.ZERO, executor, bulkhead, Duration.ofMillis(10));
+        warmUp(retrier);
+
+        IllegalStateException failure = assertThrows(
+                IllegalStateException.class,
+                () -> retrier.execute("GET /employee/{id}", () -> {
+                    int attempt = attempts.incrementAndGet();
+                    if (attempt == 1) {
+                        sleep(50);
+                    }
+                    throw new IllegalStateException("attempt " + attempt);
+                }));
+
+        assertEquals("attempt 1", failure.getMessage());
+        assertEquals(1, retrier.hedgeCount());
+    }
+
+    @Test
+    void shouldKeepLosingAttemptInsideBulkhead_afterCallerReturns() throws Exception {
+        HedgedRetrier retrier = retrier(new RetryBudget(0.1, 10), executor);
+        warmUp(retrier);
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        AtomicInteger maxUpstreamCalls = new AtomicInteger();
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        CountDownLatch releasePrimary = new CountDownLatch(1);
+        CountDownLatch releaseHedge = new CountDownLatch(1);
+        Supplier<String> attempt = () -> {
+            maxUpstreamCalls.accumulateAndGet(upstreamCalls.incrementAndGet(), Math::max);
+            try {
+                switch (attempts.incrementAndGet()) {
+                    case 1:
+                        bothRunning.countDown();
+                        await(releasePrimary);
+                        return "primary";
+                    case 2:
+                        bothRunning.countDown();
+                        await(releaseHedge);
+                        return "hedge";
+                    default:
+                        sleep(50);
+                        return "next";
+                }
+            } finally {
+                upstreamCalls.decrementAndGet();
+            }
+        };
+
+        Future<String> first =
+                executor.submit(() -> bulkhead.execute(() -> retrier.execute("GET /employee/{id}", attempt)));
+        assertTrue(bothRunning.await(5, TimeUnit.SECONDS));
+        assertEquals(2, bulkhead.inFlight());
+        releaseHedge.countDown();
+        assertEquals("hedge", first.get(5, TimeUnit.SECONDS));
+        // the primary is still open upstream and keeps the hedge's slot
+        assertEquals(1, bulkhead.inFlight());
+
+        String next = bulkhead.execute(() -> retrier.execute("GET /employee/{id}", attempt));
+        releasePrimary.countDown();
+
+        assertEquals("next", next);
+        assertEquals(3, attempts.get());
+        assertEquals(2, maxUpstreamCalls.get());
+        assertEquals(1, retrier.hedgeCount());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bulkhead.inFlight() > 0 && System.nanoTime() < deadline) {
+            sleep(10);
+        }
+        assertEquals(0, bulkhead.inFlight());
+    }
+
+    private HedgedRetrier retrier(RetryBudget budget, ExecutorService hedgeExecutor) {
+        return new HedgedRetrier(
+                budget, 2, Duration.ZERO, Duration.ZERO, hedgeExecutor, bulkhead, Duration.ofMillis(10));
+    }
+
+    // fast answers give the call a p95 well under the minimum hedge delay
+    private void warmUp(HedgedRetrier retrier) {
+        for (int i = 0; i < 32; i++) {
+            retrier.execute("GET /employee/{id}", () -> "warm");
+        }
+    }
+
+    private static ExternalApiException unreachable() {
+        return new ExternalApiException(
+                "Mock service unavailable", new ResourceAccessException("refused", new IOException("refused")));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
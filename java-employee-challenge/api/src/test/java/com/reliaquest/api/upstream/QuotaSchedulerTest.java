@@ -0,0 +1,256 @@
+package com.reliaquest.api.upstream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.exception.ExternalApiException;
+import com.reliaquest.api.exception.QuotaExhaustedException;
+import com.reliaquest.api.exception.TooManyRequestsException;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+class QuotaSchedulerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    private final QuotaScheduler scheduler =
+            new QuotaScheduler(Duration.ofSeconds(30), Duration.ofSeconds(5), Duration.ZERO, clock::get);
+
+    @Test
+    void shouldLearnQuotaAndDeferCalls_whenUpstreamRefuses() {
+        callAccepted(3);
+        assertThrows(TooManyRequestsException.class, () -> scheduler.execute(this::rejected));
+
+        assertEquals(3, scheduler.learnedQuota());
+        assertThrows(TooManyRequestsException.class, () -> scheduler.execute(this::accepted));
+        assertEquals(4, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldProbeAndReopen_whenWindowElapsed() {
+        callAccepted(3);
+        assertThrows(TooManyRequestsException.class, () -> scheduler.execute(this::rejected));
+
+        advance(Duration.ofSeconds(31));
+        assertEquals("ok", scheduler.execute(this::accepted));
+
+        assertEquals(Duration.ofSeconds(31), scheduler.learnedWindow());
+        callAccepted(2);
+    }
+
+    @Test
+    void shouldRetryProbe_whenWindowLongerThanEstimate() {
+        callAccepted(3);
+        assertThrows(TooManyRequestsException.class, () -> scheduler.execute(this::rejected));
+
+        advance(Duration.ofSeconds(30));
+        assertThrows(TooManyRequestsException.class, () -> scheduler.execute(this::rejected));
+        advance(Duration.ofSeconds(1));
+        assertThrows(TooManyRequestsException.class, () -> scheduler.execute(this::accepted));
+        assertEquals(4 + 1, upstreamCalls.get());
+
+        advance(Duration.ofSeconds(4));
+        assertEquals("ok", scheduler.execute(this::accepted));
+        assertEquals(Duration.ofSeconds(35), scheduler.learnedWindow());
+    }
+
+    @Test
+    void shouldDeferUntilRetryAfter_whenUpstreamSendsIt() {
+        callAccepted(3);
+        assertThrows(TooManyRequestsException.class, () -> scheduler.execute(() -> rejectedRetryAfter(7)));
+
+        advance(Duration.ofSeconds(6));
+        QuotaExhaustedException deferred =
+                assertThrows(QuotaExhaustedException.class, () -> scheduler.execute(this::accepted));
+        assertEquals(Duration.ofSeconds(1), deferred.getRetryAfter().orElseThrow());
+        assertEquals(4, upstreamCalls.get());
+
+        advance(Duration.ofSeconds(1));
+        assertEquals("ok", scheduler.execute(this::accepted));
+    }
+
+    @Test
+    void shouldWaitRetryAfter_whenProbeRefusedWithIt() {
+        callAccepted(3);
+        assertThrows(TooManyRequestsException.class, () -> scheduler.execute(this::rejected));
+
+        advance(Duration.ofSeconds(30));
+        assertThrows(TooManyRequestsException.class, () -> scheduler.execute(() -> rejectedRetryAfter(12)));
+        advance(Duration.ofSeconds(11));
+        assertThrows(TooManyRequestsException.class, () -> scheduler.execute(this::accepted));
+        assertEquals(5, upstreamCalls.get());
+
+        advance(Duration.ofSeconds(1));
+        assertEquals("ok", scheduler.execute(this::accepted));
+    }
+
+    @Test
+    void shouldNotCallPastQuota_whenWindowReopened() {
+        callAccepted(3);
+        assertThrows(TooManyRequestsException.class, () -> scheduler.execute(this::rejected));
+        advance(Duration.ofSeconds(31));
+        callAccepted(3);
+
+        assertThrows(QuotaExhaustedException.class, () -> scheduler.execute(this::accepted));
+
+        assertEquals(3, scheduler.learnedQuota());
+        assertEquals(4 + 3, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldNotCountCall_whenNoResponseCameBack() {
+        callAccepted(2);
+        assertThrows(ExternalApiException.class, () -> scheduler.execute(this::unreachable));
+        assertThrows(ExternalApiException.class, () -> scheduler.execute(this::serverError));
+        assertThrows(TooManyRequestsException.class, () -> scheduler.execute(this::rejected));
+
+        assertEquals(3, scheduler.learnedQuota());
+    }
+
+    @Test
+    void shouldProbeAgain_whenProbeGotNoResponse() {
+        callAccepted(3);
+        assertThrows(TooManyRequestsException.class, () -> scheduler.execute(this::rejected));
+
+        advance(Duration.ofSeconds(30));
+        assertThrows(ExternalApiException.class, () -> scheduler.execute(this::unreachable));
+        advance(Duration.ofSeconds(4));
+        assertThrows(QuotaExhaustedException.class, () -> scheduler.execute(this::accepted));
+        advance(Duration.ofSeconds(1));
+        assertEquals("ok", scheduler.execute(this::accepted));
+
+        assertEquals(Duration.ofSeconds(35), scheduler.learnedWindow());
+    }
+
+    @Test
+    void shouldKeepLearnedQuota_whenCallsSpreadAcrossWindows() {
+        callAccepted(3);
+        assertThrows(TooManyRequestsException.class, () -> scheduler.execute(this::rejected));
+        advance(Duration.ofSeconds(31));
+        callAccepted(1);
+
+        for (int i = 0; i < 5; i++) {
+            advance(Duration.ofSeconds(32));
+            callAccepted(1);
+        }
+
+        assertEquals(3, scheduler.learnedQuota());
+    }
+
+    @Test
+    void shouldLearnTokenBucket_whenBurstDrainsIt() {
+        TokenBucket upstream = new TokenBucket(5, Duration.ofSeconds(10));
+
+        for (int i = 0; i < 300; i++) {
+            callIgnoringRefusal(upstream);
+            advance(Duration.ofSeconds(2));
+        }
+
+        assertEquals(5, scheduler.learnedQuota());
+        assertEquals(10, scheduler.learnedRefillInterval().toSeconds());
+        assertTrue(upstream.refused <= 2, "refused " + upstream.refused);
+        assertTrue(upstream.admitted >= 5 + 60 - 1, "admitted " + upstream.admitted);
+    }
+
+    @Test
+    void shouldLearnTokenBucket_whenCallsTrickleFasterThanRefill() {
+        TokenBucket upstream = new TokenBucket(5, Duration.ofSeconds(10));
+
+        for (int i = 0; i < 120; i++) {
+            callIgnoringRefusal(upstream);
+            advance(Duration.ofSeconds(5));
+        }
+
+        assertEquals(5, scheduler.learnedQuota());
+        assertEquals(10, scheduler.learnedRefillInterval().toSeconds());
+        assertTrue(upstream.refused <= 3, "refused " + upstream.refused);
+        assertTrue(upstream.admitted >= 5 + 60 - 1, "admitted " + upstream.admitted);
+    }
+
+    private void callIgnoringRefusal(TokenBucket upstream) {
+        try {
+            scheduler.execute(upstream::call);
+        } catch (TooManyRequestsException ignored) {
+            // refused by the upstream or deferred by the scheduler
+        }
+    }
+
+    private void callAccepted(int count) {
+        for (int i = 0; i < count; i++) {
+            assertEquals("ok", scheduler.execute(this::accepted));
+        }
+    }
+
+    private String accepted() {
+        upstreamCalls.incrementAndGet();
+        return "ok";
+    }
+
+    private String rejected() {
+        upstreamCalls.incrementAndGet();
+        throw new TooManyRequestsException("Rate limit exceeded", null);
+    }
+
+    private String unreachable() {
+        upstreamCalls.incrementAndGet();
+        throw new ExternalApiException(
+                "Mock service unavailable", new ResourceAccessException("refused", new ConnectException("refused")));
+    }
+
+    private String serverError() {
+        upstreamCalls.incrementAndGet();
+        throw new ExternalApiException(
+                "upstream failed",
+                HttpServerErrorException.create(
+                        HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error", null, new byte[0], null));
+    }
+
+    private String rejectedRetryAfter(int seconds) {
+        upstreamCalls.incrementAndGet();
+        throw new TooManyRequestsException("Rate limit exceeded", null, Duration.ofSeconds(seconds));
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+
+    /**
+     * The mock server's limiter on the test clock: {@code burst} tokens refilled one per {@code refill}, with the wait
+     * for the next token sent as a Retry-After in whole seconds, rounded up.
+     */
+    private final class TokenBucket {
+
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private long arrivalNanos;
+        private int admitted;
+        private int refused;
+
+        TokenBucket(int burst, Duration refill) {
+            this.intervalNanos = refill.toNanos();
+            this.toleranceNanos = intervalNanos * (burst - 1);
+            this.arrivalNanos = clock.get();
+        }
+
+        String call() {
+            long now = clock.get();
+            long base = Math.max(arrivalNanos, now);
+            if (base - now > toleranceNanos) {
+                refused++;
+                long waitNanos = base - now - toleranceNanos;
+                long seconds = (waitNanos + Duration.ofSeconds(1).toNanos() - 1)
+                        / Duration.ofSeconds(1).toNanos();
+                throw new TooManyRequestsException("Rate limit exceeded", null, Duration.ofSeconds(seconds));
+            }
+            arrivalNanos = base + intervalNanos;
+            admitted++;
+            return "ok";
+        }
+    }
+}
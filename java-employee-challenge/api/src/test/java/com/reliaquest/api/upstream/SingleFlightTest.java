@@ -0,0 +1,109 @@
+package com.reliaquest.api.upstream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldShareOneCall_whenCallersAreConcurrent() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test");
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Integer> leader = executor.submit(() -> singleFlight.execute("all", () -> {
+            executions.incrementAndGet();
+            await(release);
+            return 42;
+        }));
+        while (singleFlight.stats().executions() == 0) {
+            Thread.onSpinWait();
+        }
+        List<Future<Integer>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(executor.submit(() -> singleFlight.execute("all", executions::incrementAndGet)));
+        }
+        while (singleFlight.stats().merged() < 5) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertEquals(42, leader.get(5, TimeUnit.SECONDS));
+        for (Future<Integer> follower : followers) {
+            assertEquals(42, follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, executions.get());
+        assertEquals(new SingleFlight.Stats(6, 1, 5), singleFlight.stats());
+    }
+
+    @Test
+    void shouldRunAgain_whenPreviousCallCompleted() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test");
+        AtomicInteger executions = new AtomicInteger();
+
+        singleFlight.execute("all", executions::incrementAndGet);
+        singleFlight.execute("all", executions::incrementAndGet);
+
+        assertEquals(2, executions.get());
+        assertEquals(0, singleFlight.stats().merged());
+    }
+
+    @Test
+    void shouldPropagateException_whenCallFails() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test");
+
+        assertThrows(
+                TooManyRequestsException.class,
+                () -> singleFlight.execute("all", () -> {
+                    throw new TooManyRequestsException("Rate limit exceeded", null);
+                }));
+    }
+
+    @Test
+    void shouldExportCounts_whenBoundToRegistry() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("GET /employee");
+        singleFlight.bindTo(registry);
+
+        singleFlight.execute("all", () -> 1);
+        singleFlight.execute("all", () -> 2);
+
+        assertEquals(2, counter(registry, "executed"));
+        assertEquals(0, counter(registry, "merged"));
+    }
+
+    private static double counter(SimpleMeterRegistry registry, String result) {
+        return registry.get(SingleFlight.METRIC)
+                .tag("call", "GET /employee")
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
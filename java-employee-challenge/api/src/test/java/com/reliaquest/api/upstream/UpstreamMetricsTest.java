@@ -0,0 +1,64 @@
+package com.reliaquest.api.upstream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.exception.EmployeeNotFoundException;
+import com.reliaquest.api.exception.ExternalApiException;
+import com.reliaquest.api.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+class UpstreamMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final UpstreamMetrics metrics = new UpstreamMetrics(registry);
+
+    @Test
+    void shouldTimeSuccessfulCalls_perCall() {
+        assertEquals(42, metrics.record("GET /employee", () -> 42));
+        metrics.record("GET /employee", () -> 43);
+        metrics.record("GET /employee/{id}", () -> 44);
+
+        assertEquals(2, timer("GET /employee", "2xx").count());
+        assertEquals(1, timer("GET /employee/{id}", "2xx").count());
+    }
+
+    @Test
+    void shouldTagOutcome_fromSurfacedException() {
+        recordFailure("GET /employee/{id}", new EmployeeNotFoundException("missing"));
+        recordFailure("GET /employee", new TooManyRequestsException("slow down", null));
+        recordFailure(
+                "GET /employee",
+                new ExternalApiException(
+                        "upstream failed",
+                        HttpServerErrorException.create(
+                                HttpStatus.BAD_GATEWAY, "Bad Gateway", null, new byte[0], StandardCharsets.UTF_8)));
+        recordFailure("GET /employee", new ExternalApiException("unreachable", new ResourceAccessException("refused")));
+
+        assertEquals(1, timer("GET /employee/{id}", "404").count());
+        assertEquals(1, timer("GET /employee", "429").count());
+        assertEquals(1, timer("GET /employee", "5xx").count());
+        assertEquals(1, timer("GET /employee", "error").count());
+    }
+
+    private void recordFailure(String call, RuntimeException failure) {
+        RuntimeException thrown = assertThrows(
+                RuntimeException.class,
+                () -> metrics.record(call, () -> {
+                    throw failure;
+                }));
+        assertSame(failure, thrown);
+    }
+
+    private Timer timer(String call, String outcome) {
+        return registry.get(UpstreamMetrics.TIMER)
+                .tag("call", call)
+                .tag("outcome", outcome)
+                .timer();
+    }
+}
@@ -0,0 +1,87 @@
+package com.reliaquest.server.benchmark;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.service.JournaledMockEmployeeStore;
+import com.reliaquest.server.service.MockEmployeeStore;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Create throughput of the employee store with 16 concurrent writers: in memory only, journaled without fsync (page
+ * cache) and journaled with group-committed fsync. Every iteration starts from an empty store, so the modes are
+ * compared at the same store size. The journal lives in a temporary directory on the default file system, so results
+ * depend on the disk under it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(16)
+public class JournalBenchmark {
+
+    @Param({"memory", "journal", "journal-fsync"})
+    private String durability;
+
+    private Path directory;
+    private MockEmployeeStore store;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("employee-journal-bench");
+        store = open(durability, directory);
+    }
+
+    private static MockEmployeeStore open(String durability, Path directory) throws IOException {
+        switch (durability) {
+            case "memory":
+                return new MockEmployeeStore();
+            case "journal":
+                return JournaledMockEmployeeStore.open(directory, List::of, 100_000, false);
+            case "journal-fsync":
+                return JournaledMockEmployeeStore.open(directory, List::of, 100_000, true);
+            default:
+                throw new IllegalArgumentException(durability);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        if (store instanceof Closeable closeable) {
+            closeable.close();
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void create() {
+        store.add(MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name("Benchmark Employee")
+                .salary(100_000)
+                .age(40)
+                .title("Engineer")
+                .email("benchmark@company.com")
+                .build());
+    }
+}
@@ -1,21 +1,30 @@
 package com.reliaquest.server.config;
 
 import com.reliaquest.server.model.MockEmployee;
-import com.reliaquest.server.web.RandomRequestLimitInterceptor;
-import java.util.ArrayList;
+import com.reliaquest.server.service.JournaledMockEmployeeStore;
+import com.reliaquest.server.service.MockEmployeeSeeder;
+import com.reliaquest.server.service.MockEmployeeService;
+import com.reliaquest.server.service.MockEmployeeSnapshotFile;
+import com.reliaquest.server.service.MockEmployeeStore;
+import com.reliaquest.server.web.EmployeeEventBroadcaster;
+import com.reliaquest.server.web.TokenBucketRequestLimitInterceptor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 import java.util.Locale;
-import java.util.UUID;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.random.RandomGenerator;
 import lombok.extern.slf4j.Slf4j;
 import net.datafaker.Faker;
-import net.datafaker.transformations.Field;
-import net.datafaker.transformations.JavaObjectTransformer;
-import net.datafaker.transformations.Schema;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -25,35 +34,148 @@ public class ServerConfiguration implements WebMvcConfigurer {
 
     public static final String EMAIL_TEMPLATE = "%s@company.com";
 
+    @Value("${mock.limiter.deterministic:false}")
+    private boolean limiterDeterministic;
+
+    @Value("${mock.limiter.rate:0.2}")
+    private double limiterRate;
+
+    @Value("${mock.limiter.burst:8}")
+    private int limiterBurst;
+
+    @Value("${mock.limiter.client-header:}")
+    private String limiterClientHeader;
+
+    @Value("${mock.smile.enabled:true}")
+    private boolean smileEnabled;
+
     @Bean
     public Faker faker() {
         return new Faker(Locale.getDefault());
     }
 
     /*
-     * This list is modifiable by design for CRUD operations.
+     * This store is modifiable by design for CRUD operations.
+     *
+     * With mock.employees.journal.enabled, creates and deletes are journaled to disk and the store is recovered from
+     * the journal directory on startup; the seed below is only used the first time. Without it the store is seeded on
+     * every start: an existing mock.employees.snapshot-file generated with the same max, seed and default locale is loaded
+     * instead of generating employees, and a missing or mismatched one is written after generation so the next start can load it.
+     */
+    @Bean
+    public MockEmployeeStore mockEmployees(
+            @Value("${mock.employees.max:20}") int maxEmployees,
+            @Value("${mock.employees.seed:42}") long seed,
+            @Value("${mock.employees.snapshot-file:}") String snapshotFile,
+            @Value("${mock.employees.change-log-capacity:10000}") int changeLogCapacity,
+            @Value("${mock.employees.journal.enabled:false}") boolean journalEnabled,
+            @Value("${mock.employees.journal.directory:data/journal}") String journalDirectory,
+            @Value("${mock.employees.journal.fsync:true}") boolean journalFsync,
+            @Value("${mock.employees.journal.compact-every:100000}") int journalCompactEvery)
+            throws IOException {
+        if (journalEnabled) {
+            return JournaledMockEmployeeStore.open(
+                    Path.of(journalDirectory),
+                    () -> seedEmployees(maxEmployees, seed, snapshotFile),
+                    journalCompactEvery,
+                    journalFsync,
+                    changeLogCapacity);
+        }
+        final long start = System.nanoTime();
+        final var store = MockEmployeeStore.of(seedEmployees(maxEmployees, seed, snapshotFile), changeLogCapacity);
+        log.info(
+                "Seeded employee store in {} ms",
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return store;
+    }
+
+    @Bean(destroyMethod = "close")
+    public EmployeeEventBroadcaster employeeEvents(
+            MockEmployeeService mockEmployeeService,
+            MockEmployeeStore mockEmployees,
+            @Value("${mock.events.heartbeat:15s}") Duration heartbeat) {
+        return new EmployeeEventBroadcaster(mockEmployeeService, mockEmployees, heartbeat);
+    }
+
+    private static List<MockEmployee> seedEmployees(int maxEmployees, long seed, String snapshotFile) {
+        try {
+            final var snapshot = snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+            final var locale = Locale.getDefault();
+            final var seeded = new MockEmployeeSnapshotFile.Seed(seed, maxEmployees, locale);
+            if (snapshot != null && Files.exists(snapshot)) {
+                final var loaded = MockEmployeeSnapshotFile.readSeeded(snapshot, seeded);
+                if (loaded.isPresent()) {
+                    log.info(
+                            "Loaded {} employees from snapshot {}", loaded.get().size(), snapshot);
+                    return loaded.get();
+                }
+                log.info(
+                        "Snapshot {} was not generated with max {}, seed {} and locale {}, regenerating it",
+                        snapshot,
+                        maxEmployees,
+                        seed,
+                        locale.toLanguageTag());
+            }
+            final var employees = new MockEmployeeSeeder(seed, locale).generate(maxEmployees);
+            log.info("Generated {} employees with seed {}", employees.size(), seed);
+            if (snapshot != null) {
+                MockEmployeeSnapshotFile.write(snapshot, employees, seeded);
+                log.info("Wrote employee snapshot {}", snapshot);
+            }
+            return employees;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /*
+     * Smile is added after the JSON converter, so it is only chosen when a client asks for application/x-jackson-smile
+     * and everyone else keeps getting JSON. Smile back-references repeated property names, so the employee_ prefixed
+     * keys are written once per response rather than once per employee.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        if (smileEnabled) {
+            converters.add(new MappingJackson2SmileHttpMessageConverter());
+        }
+    }
+
+    /*
+     * Deterministic mode uses the configured rate and burst so load tests are reproducible; otherwise both are drawn
+     * at random on startup, as the original mock did.
+     */
+    @Bean
+    public TokenBucketRequestLimitInterceptor requestLimiter() {
+        final var limiter = limiterDeterministic
+                ? new TokenBucketRequestLimitInterceptor(limiterRate, limiterBurst, limiterClientHeader)
+                : TokenBucketRequestLimitInterceptor.random(RandomGenerator.getDefault(), limiterClientHeader);
+        log.info(
+                "Request limit: burst {}, {} requests/s{}",
+                limiter.burst(),
+                limiter.ratePerSecond(),
+                limiterClientHeader.isBlank() ? "" : " per " + limiterClientHeader);
+        return limiter;
+    }
+
+    /*
+     * Read from the limiter's own counters at scrape time, so the request path pays only a LongAdder increment.
      */
     @Bean
-    public List<MockEmployee> mockEmployees(Faker faker, @Value("${mock.employees.max:20}") int maxEmployees) {
-        final var transformer = new JavaObjectTransformer();
-        final var schema = Schema.of(
-                Field.field("id", UUID::randomUUID),
-                Field.field("name", () -> faker.name().fullName()),
-                Field.field("salary", () -> faker.number().numberBetween(30000, 500000)),
-                Field.field("age", () -> faker.number().numberBetween(16, 70)),
-                Field.field("title", () -> faker.job().title()),
-                Field.field(
-                        "email",
-                        () -> EMAIL_TEMPLATE.formatted(
-                                faker.twitter().userName().toLowerCase())));
-        return IntStream.rangeClosed(1, maxEmployees)
-                .mapToObj(ignored -> (MockEmployee) transformer.apply(MockEmployee.class, schema))
-                .peek(mockEmployee -> log.debug("Created employee: {}", mockEmployee))
-                .collect(Collectors.toCollection(ArrayList::new));
+    public MeterBinder requestLimiterMetrics(TokenBucketRequestLimitInterceptor requestLimiter) {
+        return registry -> {
+            FunctionCounter.builder("mock.limiter.requests", requestLimiter, limiter -> limiter.admittedCount())
+                    .description("Requests seen by the rate limiter")
+                    .tag("outcome", "admitted")
+                    .register(registry);
+            FunctionCounter.builder("mock.limiter.requests", requestLimiter, limiter -> limiter.rejectedCount())
+                    .description("Requests seen by the rate limiter")
+                    .tag("outcome", "rejected")
+                    .register(registry);
+        };
     }
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(new RandomRequestLimitInterceptor());
+        registry.addInterceptor(requestLimiter());
     }
 }
@@ -1,34 +1,153 @@
 package com.reliaquest.server.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
+import com.reliaquest.server.model.CreateMockEmployeesInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
+import com.reliaquest.server.model.DeleteMockEmployeesByIdInput;
+import com.reliaquest.server.model.DeleteMockEmployeesInput;
+import com.reliaquest.server.model.GetMockEmployeesInput;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeAggregates;
+import com.reliaquest.server.model.MockEmployeeChanges;
+import com.reliaquest.server.model.MockEmployeePage;
 import com.reliaquest.server.model.Response;
 import com.reliaquest.server.service.MockEmployeeService;
+import com.reliaquest.server.web.EmployeeEventBroadcaster;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/employee")
 @RequiredArgsConstructor
 public class MockEmployeeController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final MockEmployeeService mockEmployeeService;
+    private final EmployeeEventBroadcaster employeeEvents;
+    private final ObjectMapper objectMapper;
 
+    /*
+     * The list and its pages carry a version-based ETag. A client revalidating with If-None-Match gets a body-less 304
+     * while nothing has changed, and because the version covers the whole store, that holds for every page. The tag is
+     * weak: one version goes out as JSON or Smile, gzipped or not, and Tomcat skips compression under a strong tag.
+     */
     @GetMapping()
-    public Response<List<MockEmployee>> getEmployees() {
-        return Response.handledWith(mockEmployeeService.getMockEmployees());
+    public ResponseEntity<Response<List<MockEmployee>>> getEmployees(WebRequest request) {
+        final var etag = weakEtag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(Response.handledWith(mockEmployeeService.getMockEmployees()));
+    }
+
+    private String weakEtag() {
+        return "W/\"" + mockEmployeeService.currentEtag() + "\"";
+    }
+
+    /*
+     * Cursor pagination, selected by the limit parameter so the unpaged list above keeps working for old clients.
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<Response<MockEmployeePage>> getEmployeePage(
+            @RequestParam("limit") int limit,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            WebRequest request) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(Response.error("limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        final var etag = weakEtag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        try {
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .body(Response.handledWith(mockEmployeeService.getMockEmployeePage(cursor, limit)));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Response.error(ex.getMessage()));
+        }
+    }
+
+    /*
+     * Aggregates answered from the store's salary index, so a client that only needs the highest salary or the top
+     * earners does not have to download the whole list.
+     */
+    @GetMapping("/aggregates")
+    public Response<MockEmployeeAggregates> getAggregates() {
+        return Response.handledWith(mockEmployeeService.getAggregates());
+    }
+
+    @GetMapping("/top-earners")
+    public ResponseEntity<Response<List<MockEmployee>>> getTopEarners(@RequestParam("limit") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(Response.error("limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        return ResponseEntity.ok(Response.handledWith(mockEmployeeService.getTopEarners(limit)));
+    }
+
+    /*
+     * Creates and deletes since the version in the since parameter (an ETag from the list, a page or an earlier call),
+     * so a client holding the list can catch up without reloading it.
+     */
+    @GetMapping("/changes")
+    public Response<MockEmployeeChanges> getChanges(@RequestParam("since") String since) {
+        return Response.handledWith(mockEmployeeService.getChangesSince(since));
+    }
+
+    /*
+     * Server-sent events for every create and delete; a reconnecting client sends the id of the last event it saw as
+     * Last-Event-ID and is replayed what it missed.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return employeeEvents.subscribe(lastEventId);
+    }
+
+    /*
+     * Newline-delimited JSON, one employee per line, written while walking the store. Nothing is collected first, so
+     * the first bytes go out as soon as the serializer's buffer fills and memory does not grow with the list.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamEmployees() {
+        final var employees = mockEmployeeService.streamMockEmployees().iterator();
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(out -> writeNdjson(employees, out));
+    }
+
+    private void writeNdjson(Iterator<MockEmployee> employees, OutputStream out) throws IOException {
+        final var writer =
+                objectMapper.writerFor(MockEmployee.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        // the servlet container owns the response stream; the generator only flushes into it
+        try (JsonGenerator generator =
+                objectMapper.getFactory().createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            while (employees.hasNext()) {
+                writer.writeValue(generator, employees.next());
+                generator.writeRaw('\n');
+            }
+        }
     }
 
     @GetMapping("/{id}")
@@ -48,4 +167,32 @@ public class MockEmployeeController {
     public Response<Boolean> deleteEmployee(@Valid @RequestBody DeleteMockEmployeeInput input) {
         return Response.handledWith(mockEmployeeService.delete(input));
     }
+
+    /*
+     * Batch variants of the above: one request, and one rate-limit token, for up to MockEmployeeBatch.MAX_SIZE
+     * employees. Creates and deletes take the store lock once and, with the journal on, wait for one group commit.
+     */
+    @PostMapping("/batch")
+    public Response<List<MockEmployee>> createEmployees(@Valid @RequestBody CreateMockEmployeesInput input) {
+        return Response.handledWith(mockEmployeeService.createAll(input.getEmployees()));
+    }
+
+    @DeleteMapping("/batch")
+    public Response<List<String>> deleteEmployees(@Valid @RequestBody DeleteMockEmployeesInput input) {
+        return Response.handledWith(mockEmployeeService.deleteAll(input.getNames()));
+    }
+
+    /*
+     * Deletes by id, so that employees sharing a name cannot be mistaken for one another; answers with the employees
+     * removed.
+     */
+    @DeleteMapping("/batch/ids")
+    public Response<List<MockEmployee>> deleteEmployeesById(@Valid @RequestBody DeleteMockEmployeesByIdInput input) {
+        return Response.handledWith(mockEmployeeService.deleteAllById(input.getIds()));
+    }
+
+    @PostMapping("/batch/lookup")
+    public Response<List<MockEmployee>> getEmployees(@Valid @RequestBody GetMockEmployeesInput input) {
+        return Response.handledWith(mockEmployeeService.findByIds(input.getIds()));
+    }
 }
@@ -0,0 +1,15 @@
+package com.reliaquest.server.model;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class DeleteMockEmployeesInput {
+
+    @NotEmpty
+    @Size(max = MockEmployeeBatch.MAX_SIZE)
+    private List<@NotBlank String> names;
+}
@@ -0,0 +1,16 @@
+package com.reliaquest.server.model;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import java.util.UUID;
+import lombok.Data;
+
+@Data
+public class GetMockEmployeesInput {
+
+    @NotEmpty
+    @Size(max = MockEmployeeBatch.MAX_SIZE)
+    private List<@NotNull UUID> ids;
+}
@@ -0,0 +1,10 @@
+package com.reliaquest.server.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Summary of the employee list. {@code highestSalary} is absent when no employee has a salary.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MockEmployeeAggregates(int count, @JsonProperty("highest_salary") Integer highestSalary) {}
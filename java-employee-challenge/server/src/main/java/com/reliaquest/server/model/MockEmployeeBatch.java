@@ -0,0 +1,14 @@
+package com.reliaquest.server.model;
+
+/**
+ * Limits shared by the batch endpoints.
+ */
+public final class MockEmployeeBatch {
+
+    /**
+     * Most employees, names or ids one batch request may carry.
+     */
+    public static final int MAX_SIZE = 1000;
+
+    private MockEmployeeBatch() {}
+}
@@ -0,0 +1,13 @@
+package com.reliaquest.server.model;
+
+/**
+ * One create or delete, tagged with the store version it produced. Deletes carry the removed employee so clients can
+ * drop it by id.
+ */
+public record MockEmployeeChange(long version, Type type, MockEmployee employee) {
+
+    public enum Type {
+        CREATED,
+        DELETED
+    }
+}
@@ -0,0 +1,11 @@
+package com.reliaquest.server.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+
+/**
+ * Changes since a client's entity tag, oldest first, and the tag to ask from next time. When {@code resync} is true the
+ * changes are no longer retained (or the tag is from another server instance) and the client must reload the list.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MockEmployeeChanges(List<MockEmployeeChange> changes, boolean resync, String etag) {}
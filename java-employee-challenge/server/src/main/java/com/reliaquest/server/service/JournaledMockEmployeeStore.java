@@ -0,0 +1,334 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link MockEmployeeStore} whose creates and deletes survive a restart.
+ *
+ * <p>Every mutation is applied and queued on the {@link MockEmployeeJournal} under the store lock, so the journal
+ * order is the order the store saw; the caller then waits for the group commit outside the lock, letting concurrent
+ * writers share an fsync. After {@code compactEvery} entries a background compaction copies the store and rotates the
+ * journal under the lock, then writes {@code snapshot-<generation>.bin} and deletes the files it supersedes.
+ *
+ * <p>Startup loads the newest snapshot that reads back, falling back to older ones (seeding and writing generation 0
+ * when there is none), replays every journal from that generation on, trims a torn tail and starts appending to a
+ * fresh generation.
+ */
+@Slf4j
+public class JournaledMockEmployeeStore extends MockEmployeeStore implements Closeable {
+
+    private static final Pattern SNAPSHOT = Pattern.compile("snapshot-(\\d+)\\.bin");
+    private static final Pattern JOURNAL = Pattern.compile("journal-(\\d+)\\.log");
+
+    private final Path directory;
+    private final int compactEvery;
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        final var thread = new Thread(runnable, "employee-journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    // guarded by this
+    private MockEmployeeJournal journal;
+    private long generation;
+    private int entriesSinceSnapshot;
+
+    private JournaledMockEmployeeStore(Path directory, int compactEvery, int changeLogCapacity) {
+        super(changeLogCapacity);
+        this.directory = directory;
+        this.compactEvery = compactEvery;
+    }
+
+    public static JournaledMockEmployeeStore open(
+            Path directory, Supplier<List<MockEmployee>> seed, int compactEvery, boolean fsync) throws IOException {
+        return open(directory, seed, compactEvery, fsync, DEFAULT_CHANGE_LOG_CAPACITY);
+    }
+
+    public static JournaledMockEmployeeStore open(
+            Path directory, Supplier<List<MockEmployee>> seed, int compactEvery, boolean fsync, int changeLogCapacity)
+            throws IOException {
+        Files.createDirectories(directory);
+        final var store = new JournaledMockEmployeeStore(directory, compactEvery, changeLogCapacity);
+        final long start = System.nanoTime();
+
+        final TreeMap<Long, Path> snapshots = generations(directory, SNAPSHOT);
+        long snapshotGeneration = -1;
+        for (var snapshot : snapshots.descendingMap().entrySet()) {
+            try {
+                MockEmployeeSnapshotFile.read(snapshot.getValue()).forEach(store::applyAdd);
+                snapshotGeneration = snapshot.getKey();
+                break;
+            } catch (IOException ex) {
+                // the journals from the previous snapshot on are kept until a newer one is durable
+                log.warn("Skipping unreadable employee snapshot {}", snapshot.getValue(), ex);
+            }
+        }
+        if (snapshotGeneration < 0) {
+            if (!snapshots.isEmpty()) {
+                throw new IOException("No readable employee snapshot in " + directory);
+            }
+            snapshotGeneration = 0;
+            final List<MockEmployee> employees = seed.get();
+            employees.forEach(store::applyAdd);
+            MockEmployeeSnapshotFile.write(snapshotFile(directory, 0), employees);
+        }
+
+        long lastGeneration = snapshotGeneration;
+        long replayed = 0;
+        for (var journalFile :
+                generations(directory, JOURNAL).tailMap(snapshotGeneration).entrySet()) {
+            final Path file = journalFile.getValue();
+            final long[] entries = {0};
+            final long validLength = MockEmployeeJournal.replay(file, entry -> {
+                store.apply(entry);
+                entries[0]++;
+            });
+            if (validLength < Files.size(file)) {
+                log.warn("Truncating torn tail of {} at {} bytes", file, validLength);
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.truncate(validLength);
+                }
+            }
+            replayed += entries[0];
+            lastGeneration = journalFile.getKey();
+        }
+
+        store.generation = lastGeneration + 1;
+        store.entriesSinceSnapshot = (int) Math.min(replayed, Integer.MAX_VALUE);
+        store.journal = new MockEmployeeJournal(directory, store.generation, fsync);
+        store.deleteBefore(snapshotGeneration);
+        log.info(
+                "Recovered {} employees from snapshot {} and {} journal entries in {} ms",
+                store.size(),
+                snapshotGeneration,
+                replayed,
+                (System.nanoTime() - start) / 1_000_000);
+        return store;
+    }
+
+    @Override
+    public void add(MockEmployee employee) {
+        final CompletableFuture<Void> durable;
+        synchronized (this) {
+            super.add(employee);
+            durable = journal.append(new MockEmployeeJournal.Created(employee));
+            afterAppend();
+        }
+        awaitDurable(durable);
+    }
+
+    @Override
+    public Optional<MockEmployee> removeFirstByName(String name) {
+        final Optional<MockEmployee> removed;
+        CompletableFuture<Void> durable = null;
+        synchronized (this) {
+            removed = super.removeFirstByName(name);
+            if (removed.isPresent()) {
+                durable = journal.append(new MockEmployeeJournal.Deleted(name));
+                afterAppend();
+            }
+        }
+        if (durable != null) {
+            awaitDurable(durable);
+        }
+        return removed;
+    }
+
+    /*
+     * The whole batch is applied and queued under one lock acquisition, so it lands in the journal contiguously and
+     * usually in one group commit; the caller waits once for all of it.
+     */
+    @Override
+    public void addAll(Collection<MockEmployee> employees) {
+        final List<CompletableFuture<Void>> durable = new ArrayList<>(employees.size());
+        synchronized (this) {
+            requireNewIds(employees);
+            for (MockEmployee employee : employees) {
+                super.add(employee);
+                durable.add(journal.append(new MockEmployeeJournal.Created(employee)));
+                afterAppend();
+            }
+        }
+        awaitDurable(CompletableFuture.allOf(durable.toArray(CompletableFuture[]::new)));
+    }
+
+    @Override
+    public List<MockEmployee> removeAllByName(Collection<String> names) {
+        final List<MockEmployee> removed = new ArrayList<>(names.size());
+        final List<CompletableFuture<Void>> durable = new ArrayList<>(names.size());
+        synchronized (this) {
+            for (String name : names) {
+                super.removeFirstByName(name).ifPresent(employee -> {
+                    removed.add(employee);
+                    durable.add(journal.append(new MockEmployeeJournal.Deleted(name)));
+                    afterAppend();
+                });
+            }
+        }
+        awaitDurable(CompletableFuture.allOf(durable.toArray(CompletableFuture[]::new)));
+        return removed;
+    }
+
+    @Override
+    public Optional<MockEmployee> removeById(UUID id) {
+        final Optional<MockEmployee> removed;
+        CompletableFuture<Void> durable = null;
+        synchronized (this) {
+            removed = super.removeById(id);
+            if (removed.isPresent()) {
+                durable = journal.append(new MockEmployeeJournal.DeletedById(id));
+                afterAppend();
+            }
+        }
+        if (durable != null) {
+            awaitDurable(durable);
+        }
+        return removed;
+    }
+
+    @Override
+    public List<MockEmployee> removeAllById(Collection<UUID> ids) {
+        final List<MockEmployee> removed = new ArrayList<>(ids.size());
+        final List<CompletableFuture<Void>> durable = new ArrayList<>(ids.size());
+        synchronized (this) {
+            for (UUID id : ids) {
+                super.removeById(id).ifPresent(employee -> {
+                    removed.add(employee);
+                    durable.add(journal.append(new MockEmployeeJournal.DeletedById(id)));
+                    afterAppend();
+                });
+            }
+        }
+        awaitDurable(CompletableFuture.allOf(durable.toArray(CompletableFuture[]::new)));
+        return removed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        compactor.shutdown();
+        try {
+            // a running compaction still writes into the directory and rotates the journal
+            compactor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        final MockEmployeeJournal current;
+        synchronized (this) {
+            current = journal;
+        }
+        current.close();
+    }
+
+    private void applyAdd(MockEmployee employee) {
+        super.add(employee);
+    }
+
+    private void apply(MockEmployeeJournal.Entry entry) {
+        if (entry instanceof MockEmployeeJournal.Created created) {
+            super.add(created.employee());
+        } else if (entry instanceof MockEmployeeJournal.Deleted deleted) {
+            super.removeFirstByName(deleted.name());
+        } else if (entry instanceof MockEmployeeJournal.DeletedById deleted) {
+            super.removeById(deleted.id());
+        }
+    }
+
+    private void afterAppend() {
+        if (++entriesSinceSnapshot >= compactEvery && compacting.compareAndSet(false, true)) {
+            compactor.execute(this::compact);
+        }
+    }
+
+    private void compact() {
+        try {
+            final List<MockEmployee> employees;
+            final long snapshotGeneration;
+            final CompletableFuture<Void> rotated;
+            synchronized (this) {
+                employees = list();
+                snapshotGeneration = ++generation;
+                rotated = journal.rotate(snapshotGeneration);
+                entriesSinceSnapshot = 0;
+            }
+            final long start = System.nanoTime();
+            rotated.join();
+            // durable before anything it supersedes is deleted
+            MockEmployeeSnapshotFile.write(snapshotFile(directory, snapshotGeneration), employees);
+            deleteBefore(snapshotGeneration);
+            log.info(
+                    "Compacted employee journal into snapshot {} ({} employees) in {} ms",
+                    snapshotGeneration,
+                    employees.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException ex) {
+            // older snapshot and journals are kept, so recovery still works from them
+            log.warn("Employee journal compaction failed", ex);
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    private void deleteBefore(long snapshotGeneration) throws IOException {
+        for (long old :
+                generations(directory, SNAPSHOT).headMap(snapshotGeneration).keySet()) {
+            Files.deleteIfExists(snapshotFile(directory, old));
+        }
+        for (long old :
+                generations(directory, JOURNAL).headMap(snapshotGeneration).keySet()) {
+            Files.deleteIfExists(MockEmployeeJournal.file(directory, old));
+        }
+    }
+
+    private static void awaitDurable(CompletableFuture<Void> durable) {
+        try {
+            durable.join();
+        } catch (CompletionException ex) {
+            final Throwable cause = ex.getCause();
+            throw cause instanceof IOException io
+                    ? new UncheckedIOException("Change applied but not journaled", io)
+                    : new IllegalStateException("Change applied but not journaled", cause);
+        }
+    }
+
+    private static Path snapshotFile(Path directory, long generation) {
+        return directory.resolve("snapshot-" + generation + ".bin");
+    }
+
+    private static TreeMap<Long, Path> generations(Path directory, Pattern pattern) throws IOException {
+        final TreeMap<Long, Path> generations = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                final Matcher matcher = pattern.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    generations.put(Long.parseLong(matcher.group(1)), file);
+                }
+            });
+        }
+        return generations;
+    }
+}
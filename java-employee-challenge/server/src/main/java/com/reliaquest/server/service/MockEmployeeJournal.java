@@ -0,0 +1,253 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only log of employee creates and deletes with group commit.
+ *
+ * <p>Callers frame their entry and enqueue it; a single writer thread drains whatever has queued up, writes it with
+ * one gathering write and one {@code fsync}, then completes every caller in the batch. Under load the batch grows
+ * with the number of waiting writers, so the fsync cost is shared instead of paid per mutation.
+ *
+ * <p>Each entry is framed as its payload length and a CRC32C of the payload, so replay stops cleanly at a torn write
+ * left by a crash. Files are named {@code journal-<generation>.log}; {@link #rotate(long)} moves the writer to the next
+ * generation in queue order, which is how compaction marks the point its snapshot covers.
+ */
+@Slf4j
+public class MockEmployeeJournal implements Closeable {
+
+    private static final byte CREATED = 1;
+    private static final byte DELETED = 2;
+    private static final byte DELETED_BY_ID = 3;
+    private static final int FRAME_HEADER_BYTES = 8;
+    private static final int MAX_BATCH = 1024;
+
+    private final Path directory;
+    private final boolean fsync;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    // owned by the writer thread once started
+    private FileChannel channel;
+
+    public MockEmployeeJournal(Path directory, long generation, boolean fsync) throws IOException {
+        this.directory = directory;
+        this.fsync = fsync;
+        this.channel = openForAppend(generation);
+        this.writer = new Thread(this::writeLoop, "employee-journal");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public static Path file(Path directory, long generation) {
+        return directory.resolve("journal-" + generation + ".log");
+    }
+
+    /**
+     * Frames the entry on the calling thread and queues it; the future completes once it is on disk (or handed to the
+     * OS when fsync is off).
+     */
+    public CompletableFuture<Void> append(Entry entry) {
+        return enqueue(new Pending(frame(encode(entry)), -1, new CompletableFuture<>()));
+    }
+
+    /**
+     * Entries queued after this call go to the given generation's file; the future completes once the current file
+     * has been synced and closed.
+     */
+    public CompletableFuture<Void> rotate(long nextGeneration) {
+        return enqueue(new Pending(null, nextGeneration, new CompletableFuture<>()));
+    }
+
+    /**
+     * Reads the valid prefix of a journal file through a memory mapping, handing each entry to {@code consumer}.
+     * Returns the length of that prefix; anything after it is a torn or corrupt tail.
+     */
+    public static long replay(Path file, Consumer<Entry> consumer) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = in.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Journal " + file + " is larger than 2 GiB: " + size + " bytes");
+            }
+            final ByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            final CRC32C crc = new CRC32C();
+            while (buffer.remaining() >= FRAME_HEADER_BYTES) {
+                final int start = buffer.position();
+                final int length = buffer.getInt();
+                final int checksum = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    return start;
+                }
+                final ByteBuffer payload = buffer.slice(buffer.position(), length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    return start;
+                }
+                consumer.accept(decode(payload));
+                buffer.position(buffer.position() + length);
+            }
+            return buffer.position();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        queue.add(new Pending(null, -1, new CompletableFuture<>()));
+        try {
+            writer.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        // entries that raced with close never reach the writer
+        final var closedException = new IOException("Journal is closed");
+        queue.forEach(pending -> pending.done().completeExceptionally(closedException));
+        channel.close();
+    }
+
+    private CompletableFuture<Void> enqueue(Pending pending) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IOException("Journal is closed"));
+        }
+        queue.add(pending);
+        return pending.done();
+    }
+
+    private void writeLoop() {
+        final List<Pending> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException ex) {
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            try {
+                writeBatch(batch);
+                batch.forEach(pending -> pending.done().complete(null));
+            } catch (IOException | RuntimeException ex) {
+                log.error("Employee journal write failed for {} entries", batch.size(), ex);
+                batch.forEach(pending -> pending.done().completeExceptionally(ex));
+            }
+            batch.clear();
+            if (closed && queue.isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    private void writeBatch(List<Pending> batch) throws IOException {
+        final List<ByteBuffer> frames = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            if (pending.frame() != null) {
+                frames.add(pending.frame());
+            } else if (pending.nextGeneration() >= 0) {
+                flush(frames);
+                channel.close();
+                channel = openForAppend(pending.nextGeneration());
+            }
+        }
+        flush(frames);
+    }
+
+    private void flush(List<ByteBuffer> frames) throws IOException {
+        if (frames.isEmpty()) {
+            return;
+        }
+        final ByteBuffer[] buffers = frames.toArray(ByteBuffer[]::new);
+        long remaining = 0;
+        for (ByteBuffer buffer : buffers) {
+            remaining += buffer.remaining();
+        }
+        while (remaining > 0) {
+            remaining -= channel.write(buffers);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+        frames.clear();
+    }
+
+    private FileChannel openForAppend(long generation) throws IOException {
+        return FileChannel.open(
+                file(directory, generation),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private static ByteBuffer frame(byte[] payload) {
+        final CRC32C crc = new CRC32C();
+        crc.update(payload);
+        final ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_BYTES + payload.length);
+        frame.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        return frame.flip();
+    }
+
+    private static byte[] encode(Entry entry) {
+        final var bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            if (entry instanceof Created created) {
+                out.writeByte(CREATED);
+                MockEmployeeSnapshotFile.writeEmployee(out, created.employee());
+            } else if (entry instanceof Deleted deleted) {
+                out.writeByte(DELETED);
+                MockEmployeeSnapshotFile.writeString(out, deleted.name());
+            } else if (entry instanceof DeletedById deleted) {
+                out.writeByte(DELETED_BY_ID);
+                out.writeLong(deleted.id().getMostSignificantBits());
+                out.writeLong(deleted.id().getLeastSignificantBits());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Entry decode(ByteBuffer payload) {
+        final byte type = payload.get();
+        return switch (type) {
+            case CREATED -> new Created(MockEmployeeSnapshotFile.readEmployee(payload));
+            case DELETED -> new Deleted(MockEmployeeSnapshotFile.readString(payload));
+            case DELETED_BY_ID -> new DeletedById(new UUID(payload.getLong(), payload.getLong()));
+            default -> throw new IllegalStateException("Unknown journal entry type " + type);
+        };
+    }
+
+    public sealed interface Entry permits Created, Deleted, DeletedById {}
+
+    public record Created(MockEmployee employee) implements Entry {}
+
+    /**
+     * Deletes are replayed by name: replay applies entries in the order they were applied live, so removing the first
+     * match again removes the same employee.
+     */
+    public record Deleted(String name) implements Entry {}
+
+    public record DeletedById(UUID id) implements Entry {}
+
+    private record Pending(ByteBuffer frame, long nextGeneration, CompletableFuture<Void> done) {}
+}
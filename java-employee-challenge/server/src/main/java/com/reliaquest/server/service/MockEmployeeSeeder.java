@@ -0,0 +1,75 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.config.ServerConfiguration;
+import com.reliaquest.server.model.MockEmployee;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import lombok.RequiredArgsConstructor;
+import net.datafaker.Faker;
+
+/**
+ * Generates seed employees in parallel from a fixed seed.
+ *
+ * <p>The range is cut into fixed-size chunks and each chunk gets its own {@link Faker} and {@link Random} seeded from
+ * the base seed and the chunk number. The output therefore depends only on the seed, count and locale, never on how
+ * the chunks were scheduled across threads. Ids come from the same random source so they are reproducible too.
+ *
+ * <p>Chunk seeds are mixed rather than derived linearly: with {@code seed * 31 + chunk}, seed 0 chunk 31 would repeat
+ * seed 1 chunk 0, and neighbouring {@link Random} seeds start out with correlated draws.
+ */
+@RequiredArgsConstructor
+public class MockEmployeeSeeder {
+
+    private static final int CHUNK_SIZE = 4096;
+
+    private final long seed;
+    private final Locale locale;
+
+    public List<MockEmployee> generate(int count) {
+        final int chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        return IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> generateChunk(chunk, Math.min(CHUNK_SIZE, count - chunk * CHUNK_SIZE)))
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    private List<MockEmployee> generateChunk(int chunk, int size) {
+        final var random = new Random(chunkSeed(seed, chunk));
+        final var faker = new Faker(locale, random);
+        return IntStream.range(0, size)
+                .mapToObj(ignored -> MockEmployee.builder()
+                        .id(randomUuid(random))
+                        .name(faker.name().fullName())
+                        .salary(faker.number().numberBetween(30000, 500000))
+                        .age(faker.number().numberBetween(16, 70))
+                        .title(faker.job().title())
+                        .email(ServerConfiguration.EMAIL_TEMPLATE.formatted(
+                                faker.twitter().userName().toLowerCase()))
+                        .build())
+                .toList();
+    }
+
+    static long chunkSeed(long seed, int chunk) {
+        return mix(mix(seed) + chunk);
+    }
+
+    // the SplitMix64 finalizer, as SplittableRandom uses it
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /*
+     * Version 4 layout like UUID.randomUUID(), but drawn from the seeded generator.
+     */
+    private static UUID randomUuid(Random random) {
+        final long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        final long leastSigBits = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -4,11 +4,13 @@ import com.reliaquest.server.config.ServerConfiguration;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeAggregates;
+import com.reliaquest.server.model.MockEmployeeChanges;
+import com.reliaquest.server.model.MockEmployeePage;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
-import lombok.Getter;
+import java.util.stream.Stream;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,37 +24,164 @@ public class MockEmployeeService {
 
     private final Faker faker;
 
-    @Getter
-    private final List<MockEmployee> mockEmployees;
+    private final MockEmployeeStore mockEmployees;
+
+    /**
+     * Entity tag for the current employee list. Take it before reading the list or a page of it.
+     */
+    public String currentEtag() {
+        return etag(mockEmployees.version());
+    }
+
+    /**
+     * Changes since the list version named by {@code etag}, as sent in an ETag header (quoted, optionally weak) or
+     * bare. Tags from another store instance, or older than the retained change log, ask the client to resync.
+     */
+    public MockEmployeeChanges getChangesSince(String etag) {
+        return getChangeSetSince(etag)
+                .map(changeSet -> new MockEmployeeChanges(changeSet.changes(), false, quotedEtag(changeSet.version())))
+                .orElseGet(() -> new MockEmployeeChanges(List.of(), true, null));
+    }
+
+    /**
+     * Same as {@link #getChangesSince(String)}, with the version the changes lead to; empty when a resync is needed.
+     */
+    public Optional<MockEmployeeStore.ChangeSet> getChangeSetSince(String etag) {
+        final long since = parseVersion(etag);
+        return since < 0 ? Optional.empty() : mockEmployees.changesSince(since);
+    }
+
+    /**
+     * The tag for {@code version} as it appears in an ETag header.
+     */
+    public String quotedEtag(long version) {
+        return "\"" + etag(version) + "\"";
+    }
+
+    private String etag(long version) {
+        return Long.toHexString(mockEmployees.instanceId()) + "-" + version;
+    }
+
+    private long parseVersion(String etag) {
+        var tag = etag.startsWith("W/") ? etag.substring(2) : etag;
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        final var prefix = Long.toHexString(mockEmployees.instanceId()) + "-";
+        if (!tag.startsWith(prefix)) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(tag.substring(prefix.length()));
+        } catch (NumberFormatException ex) {
+            return -1L;
+        }
+    }
+
+    public List<MockEmployee> getMockEmployees() {
+        return mockEmployees.list();
+    }
+
+    public Stream<MockEmployee> streamMockEmployees() {
+        return mockEmployees.stream();
+    }
+
+    /**
+     * Page of at most {@code limit} employees following {@code cursor}, or the first page when the cursor is null.
+     *
+     * @throws IllegalArgumentException when the cursor was not issued by this service
+     */
+    public MockEmployeePage getMockEmployeePage(String cursor, int limit) {
+        final var page = mockEmployees.page(parseCursor(cursor), limit);
+        return new MockEmployeePage(
+                page.employees(), page.nextSequence() == null ? null : Long.toString(page.nextSequence()));
+    }
+
+    private static long parseCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return -1L;
+        }
+        try {
+            final long sequence = Long.parseLong(cursor);
+            if (sequence >= 0) {
+                return sequence;
+            }
+        } catch (NumberFormatException ex) {
+            // fall through
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
 
     public Optional<MockEmployee> findById(@NonNull UUID uuid) {
-        return mockEmployees.stream()
-                .filter(mockEmployee -> Objects.nonNull(mockEmployee.getId())
-                        && mockEmployee.getId().equals(uuid))
-                .findFirst();
+        return mockEmployees.findById(uuid);
+    }
+
+    /**
+     * Count and highest salary, read from the store's indexes rather than by walking the list.
+     */
+    public MockEmployeeAggregates getAggregates() {
+        final var highestSalary = mockEmployees.highestSalary();
+        return new MockEmployeeAggregates(
+                mockEmployees.size(), highestSalary.isPresent() ? highestSalary.getAsInt() : null);
+    }
+
+    public List<MockEmployee> getTopEarners(int limit) {
+        return mockEmployees.topBySalary(limit);
+    }
+
+    /**
+     * Employees for the ids that exist, in request order; duplicates and unknown ids are dropped.
+     */
+    public List<MockEmployee> findByIds(@NonNull List<UUID> ids) {
+        return ids.stream()
+                .distinct()
+                .map(mockEmployees::findById)
+                .flatMap(Optional::stream)
+                .toList();
     }
 
     public MockEmployee create(@NonNull CreateMockEmployeeInput input) {
-        final var mockEmployee = MockEmployee.from(
-                ServerConfiguration.EMAIL_TEMPLATE.formatted(
-                        faker.twitter().userName().toLowerCase()),
-                input);
+        final var mockEmployee = newEmployee(input);
         mockEmployees.add(mockEmployee);
         log.debug("Added employee: {}", mockEmployee);
         return mockEmployee;
     }
 
+    public List<MockEmployee> createAll(@NonNull List<CreateMockEmployeeInput> inputs) {
+        final var created = inputs.stream().map(this::newEmployee).toList();
+        mockEmployees.addAll(created);
+        log.debug("Added {} employees", created.size());
+        return created;
+    }
+
+    private MockEmployee newEmployee(CreateMockEmployeeInput input) {
+        return MockEmployee.from(
+                ServerConfiguration.EMAIL_TEMPLATE.formatted(
+                        faker.twitter().userName().toLowerCase()),
+                input);
+    }
+
     public boolean delete(@NonNull DeleteMockEmployeeInput input) {
-        final var mockEmployee = mockEmployees.stream()
-                .filter(employee -> Objects.nonNull(employee.getName())
-                        && employee.getName().equalsIgnoreCase(input.getName()))
-                .findFirst();
-        if (mockEmployee.isPresent()) {
-            mockEmployees.remove(mockEmployee.get());
-            log.debug("Removed employee: {}", mockEmployee.get());
-            return true;
-        }
+        final var mockEmployee = mockEmployees.removeFirstByName(input.getName());
+        mockEmployee.ifPresent(employee -> log.debug("Removed employee: {}", employee));
+        return mockEmployee.isPresent();
+    }
+
+    /**
+     * Deletes the first employee matching each name, in order. Returns the names of the employees removed.
+     */
+    public List<String> deleteAll(@NonNull List<String> names) {
+        final var removed = mockEmployees.removeAllByName(names);
+        log.debug("Removed {} of {} requested employees", removed.size(), names.size());
+        return removed.stream().map(MockEmployee::getName).toList();
+    }
 
-        return false;
+    /**
+     * Deletes the employees with the given ids; unknown ids are skipped. Returns the employees removed, in order.
+     */
+    public List<MockEmployee> deleteAllById(@NonNull List<UUID> ids) {
+        final var removed = mockEmployees.removeAllById(ids);
+        log.debug("Removed {} of {} requested employees by id", removed.size(), ids.size());
+        return removed;
     }
 }
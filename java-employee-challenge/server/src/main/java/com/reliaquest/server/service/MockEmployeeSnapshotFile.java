@@ -0,0 +1,210 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.io.BufferedOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Binary employee snapshot, read through a memory-mapped buffer so loading a large seed set costs one sequential pass
+ * over the page cache instead of regenerating it.
+ *
+ * <p>Layout, big-endian: magic and version as ints, the {@link Seed} the employees were generated from as an int
+ * count ({@code -1} when they were not generated), a long seed and a locale language tag, the record count as an int,
+ * then per employee the id as two longs (all bits set for a null id), salary and age as ints
+ * ({@link Integer#MIN_VALUE} for null), and name, title and email as an int byte length ({@code -1} for null) followed
+ * by UTF-8 bytes; the language tag is written like those strings. Version 1 files have no seed and are read as not
+ * generated; version 2 files have no locale and never match a seed. A single mapping is used, so files are limited to
+ * 2 GiB.
+ */
+public final class MockEmployeeSnapshotFile {
+
+    private static final int MAGIC = 0x4d454d50; // "MEMP"
+    private static final int VERSION = 3;
+    private static final int UNSEEDED = -1;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final long NULL_ID_BITS = -1L;
+
+    private MockEmployeeSnapshotFile() {}
+
+    /**
+     * The generator settings behind a seed snapshot, so a file written for other settings is not mistaken for it. The
+     * locale picks Faker's names and titles, so the same seed gives different employees under another locale.
+     */
+    public record Seed(long seed, int max, Locale locale) {}
+
+    public static List<MockEmployee> read(Path path) throws IOException {
+        return read(path, null);
+    }
+
+    /**
+     * The employees in the snapshot, or empty when it was not generated from {@code seed}.
+     */
+    public static Optional<List<MockEmployee>> readSeeded(Path path, Seed seed) throws IOException {
+        return Optional.ofNullable(read(path, seed));
+    }
+
+    // null when expected is set and the snapshot was not generated from it
+    private static List<MockEmployee> read(Path path, Seed expected) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot " + path + " is larger than 2 GiB: " + size + " bytes");
+            }
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not an employee snapshot: " + path);
+            }
+            final int version = buffer.getInt();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + " in " + path);
+            }
+            final int max = version == 1 ? UNSEEDED : buffer.getInt();
+            final long seed = version == 1 ? 0 : buffer.getLong();
+            final String languageTag = version < 3 ? null : readString(buffer);
+            if (expected != null
+                    && (max == UNSEEDED
+                            || max != expected.max()
+                            || seed != expected.seed()
+                            || !expected.locale().toLanguageTag().equals(languageTag))) {
+                return null;
+            }
+            final int count = buffer.getInt();
+            final List<MockEmployee> employees = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                employees.add(readEmployee(buffer));
+            }
+            return employees;
+        } catch (RuntimeException ex) {
+            // BufferUnderflowException and friends mean a truncated or corrupt file
+            throw new IOException("Corrupt employee snapshot: " + path, ex);
+        }
+    }
+
+    /**
+     * Writes to a sibling temporary file and moves it into place, so a reader never sees a partial snapshot. The file
+     * is forced to disk before the move and the directory after it, so once this returns the snapshot survives a crash
+     * and the files it supersedes can be deleted.
+     */
+    public static void write(Path path, Collection<MockEmployee> employees) throws IOException {
+        write(path, employees, null);
+    }
+
+    /**
+     * Like {@link #write(Path, Collection)}, recording the {@code seed} the employees were generated from.
+     */
+    public static void write(Path path, Collection<MockEmployee> employees, Seed seed) throws IOException {
+        final Path absolute = path.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        final Path temp = Files.createTempFile(
+                absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+                    OutputStream file = Channels.newOutputStream(channel);
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(seed == null ? UNSEEDED : seed.max());
+                out.writeLong(seed == null ? 0 : seed.seed());
+                writeString(out, seed == null ? null : seed.locale().toLanguageTag());
+                out.writeInt(employees.size());
+                for (MockEmployee employee : employees) {
+                    writeEmployee(out, employee);
+                }
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            forceDirectory(absolute.getParent());
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /*
+     * Makes the rename durable. Some platforms, Windows among them, cannot open a directory; there the rename is as
+     * durable as the file system makes it.
+     */
+    private static void forceDirectory(Path directory) throws IOException {
+        final FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException ex) {
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    static MockEmployee readEmployee(ByteBuffer buffer) {
+        final long mostSigBits = buffer.getLong();
+        final long leastSigBits = buffer.getLong();
+        final boolean nullId = mostSigBits == NULL_ID_BITS && leastSigBits == NULL_ID_BITS;
+        return MockEmployee.builder()
+                .id(nullId ? null : new UUID(mostSigBits, leastSigBits))
+                .salary(readInt(buffer))
+                .age(readInt(buffer))
+                .name(readString(buffer))
+                .title(readString(buffer))
+                .email(readString(buffer))
+                .build();
+    }
+
+    static void writeEmployee(DataOutput out, MockEmployee employee) throws IOException {
+        final UUID id = employee.getId();
+        out.writeLong(id == null ? NULL_ID_BITS : id.getMostSignificantBits());
+        out.writeLong(id == null ? NULL_ID_BITS : id.getLeastSignificantBits());
+        writeInt(out, employee.getSalary());
+        writeInt(out, employee.getAge());
+        writeString(out, employee.getName());
+        writeString(out, employee.getTitle());
+        writeString(out, employee.getEmail());
+    }
+
+    private static Integer readInt(ByteBuffer buffer) {
+        final int value = buffer.getInt();
+        return value == NULL_INT ? null : value;
+    }
+
+    private static void writeInt(DataOutput out, Integer value) throws IOException {
+        out.writeInt(value == null ? NULL_INT : value);
+    }
+
+    static String readString(ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,338 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChange;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Thread-safe employee store keyed by id, with a case-insensitive name index.
+ *
+ * <p>Employees are kept in insertion order under an increasing sequence number, so listing stays stable and deleting
+ * by name removes the oldest match, as the list-based store did. Ids are unique: adding an employee whose id is already
+ * stored is refused.
+ *
+ * <p>Writes are serialized, but reads are lock-free and each index is updated on its own, so there is no snapshot across
+ * indexes: a reader racing with a write can find an employee by id or name before it is listed, or list it after it
+ * can no longer be found. An added employee is put in the ordered view last and a removed one is taken out of it
+ * first, so whatever {@link #list()} or {@link #page} returns is also reachable through the other indexes at that
+ * moment.
+ *
+ * <p>A second skip list orders employees by salary, highest first, so the highest salary and the top earners are read
+ * from its head without scanning the store.
+ *
+ * <p>Every write bumps the store version and is recorded in a bounded change log, so clients holding an older version
+ * can catch up from the log while it still reaches back that far.
+ */
+public class MockEmployeeStore {
+
+    public static final int DEFAULT_CHANGE_LOG_CAPACITY = 10_000;
+
+    private final ConcurrentSkipListMap<Long, MockEmployee> bySequence = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<UUID, Long> sequenceById = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ConcurrentSkipListSet<Long>> sequencesByName = new ConcurrentHashMap<>();
+    // employees without a salary are not indexed
+    private final ConcurrentSkipListMap<SalaryKey, MockEmployee> bySalary = new ConcurrentSkipListMap<>();
+    private final int changeLogCapacity;
+    // guarded by this
+    private final ArrayDeque<MockEmployeeChange> changeLog = new ArrayDeque<>();
+    private final List<Consumer<MockEmployeeChange>> listeners = new CopyOnWriteArrayList<>();
+    private long nextSequence;
+    // bumped after each write is applied, so a reader that sees a version also sees that write
+    private volatile long version;
+    private final long instanceId = ThreadLocalRandom.current().nextLong();
+
+    public MockEmployeeStore() {
+        this(DEFAULT_CHANGE_LOG_CAPACITY);
+    }
+
+    public MockEmployeeStore(int changeLogCapacity) {
+        if (changeLogCapacity < 0) {
+            throw new IllegalArgumentException("changeLogCapacity must not be negative: " + changeLogCapacity);
+        }
+        this.changeLogCapacity = changeLogCapacity;
+    }
+
+    public static MockEmployeeStore of(Collection<MockEmployee> employees) {
+        return of(employees, DEFAULT_CHANGE_LOG_CAPACITY);
+    }
+
+    public static MockEmployeeStore of(Collection<MockEmployee> employees, int changeLogCapacity) {
+        MockEmployeeStore store = new MockEmployeeStore(changeLogCapacity);
+        employees.forEach(store::add);
+        return store;
+    }
+
+    public List<MockEmployee> list() {
+        return new ArrayList<>(bySequence.values());
+    }
+
+    /**
+     * Live, weakly consistent view in insertion order: it reflects writes made while it is being consumed but never
+     * fails or copies the store.
+     */
+    public Stream<MockEmployee> stream() {
+        return bySequence.values().stream();
+    }
+
+    public int size() {
+        return bySequence.size();
+    }
+
+    public OptionalInt highestSalary() {
+        Map.Entry<SalaryKey, MockEmployee> highest = bySalary.firstEntry();
+        return highest == null
+                ? OptionalInt.empty()
+                : OptionalInt.of(highest.getKey().salary());
+    }
+
+    /**
+     * Up to {@code limit} employees with the highest salaries, highest first; equal salaries keep insertion order.
+     */
+    public List<MockEmployee> topBySalary(int limit) {
+        List<MockEmployee> top = new ArrayList<>(Math.min(limit, bySalary.size()));
+        Iterator<MockEmployee> iterator = bySalary.values().iterator();
+        while (top.size() < limit && iterator.hasNext()) {
+            top.add(iterator.next());
+        }
+        return top;
+    }
+
+    /**
+     * Changes on every add and delete. Read it before reading the data it should describe: a write racing with the
+     * read can then only make the data newer than the version, never older.
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Random per store instance, so versions from before a restart are never mistaken for current ones.
+     */
+    public long instanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Registers a listener that is called with every change, in version order, while the write lock is held. It must
+     * hand the change off rather than do any work that could block.
+     */
+    public void addListener(Consumer<MockEmployeeChange> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * The changes after version {@code since}, oldest first, together with the version they bring a client to. Empty
+     * when the log no longer reaches back to {@code since} or {@code since} is ahead of the store.
+     */
+    public synchronized Optional<ChangeSet> changesSince(long since) {
+        if (since > version) {
+            return Optional.empty();
+        }
+        long oldestRetained =
+                changeLog.isEmpty() ? version + 1 : changeLog.peekFirst().version();
+        if (since < oldestRetained - 1) {
+            return Optional.empty();
+        }
+        List<MockEmployeeChange> changes = new ArrayList<>((int) (version - since));
+        Iterator<MockEmployeeChange> newestFirst = changeLog.descendingIterator();
+        while (newestFirst.hasNext()) {
+            MockEmployeeChange change = newestFirst.next();
+            if (change.version() <= since) {
+                break;
+            }
+            changes.add(change);
+        }
+        Collections.reverse(changes);
+        return Optional.of(new ChangeSet(changes, version));
+    }
+
+    /**
+     * Up to {@code limit} employees added after the one at {@code afterSequence}, in insertion order. The cursor is the
+     * sequence of the last employee returned, so paging stays consistent while other requests add or remove
+     * employees: nothing that survives the walk is skipped or returned twice.
+     */
+    public Page page(long afterSequence, int limit) {
+        List<MockEmployee> employees = new ArrayList<>(Math.min(limit, bySequence.size()));
+        long lastSequence = afterSequence;
+        for (Map.Entry<Long, MockEmployee> entry :
+                bySequence.tailMap(afterSequence, false).entrySet()) {
+            if (employees.size() == limit) {
+                return new Page(employees, lastSequence);
+            }
+            employees.add(entry.getValue());
+            lastSequence = entry.getKey();
+        }
+        return new Page(employees, null);
+    }
+
+    public Optional<MockEmployee> findById(UUID id) {
+        Long sequence = sequenceById.get(id);
+        return sequence == null ? Optional.empty() : Optional.ofNullable(bySequence.get(sequence));
+    }
+
+    /**
+     * @throws IllegalArgumentException when an employee with the same id is already stored
+     */
+    public synchronized void add(MockEmployee employee) {
+        requireNewIds(List.of(employee));
+        long sequence = nextSequence++;
+        if (Objects.nonNull(employee.getId())) {
+            sequenceById.put(employee.getId(), sequence);
+        }
+        if (Objects.nonNull(employee.getName())) {
+            sequencesByName
+                    .computeIfAbsent(nameKey(employee.getName()), ignored -> new ConcurrentSkipListSet<>())
+                    .add(sequence);
+        }
+        if (Objects.nonNull(employee.getSalary())) {
+            bySalary.put(new SalaryKey(employee.getSalary(), sequence), employee);
+        }
+        bySequence.put(sequence, employee);
+        record(MockEmployeeChange.Type.CREATED, employee);
+    }
+
+    /**
+     * Adds every employee under one acquisition of the write lock; nothing is added when any of them is refused.
+     *
+     * @throws IllegalArgumentException when an id is already stored or appears twice in {@code employees}
+     */
+    public synchronized void addAll(Collection<MockEmployee> employees) {
+        requireNewIds(employees);
+        employees.forEach(this::add);
+    }
+
+    /**
+     * Checks a batch before any of it is applied, so callers that add one by one cannot stop halfway. Call with the
+     * lock held.
+     */
+    protected void requireNewIds(Collection<MockEmployee> employees) {
+        Set<UUID> ids = new HashSet<>();
+        for (MockEmployee employee : employees) {
+            UUID id = employee.getId();
+            if (Objects.nonNull(id) && (sequenceById.containsKey(id) || !ids.add(id))) {
+                throw new IllegalArgumentException("Duplicate employee id: " + id);
+            }
+        }
+    }
+
+    /**
+     * Removes the first match for each name in turn, under one acquisition of the write lock; a name listed twice
+     * removes two employees. Returns the employees removed, in order.
+     */
+    public synchronized List<MockEmployee> removeAllByName(Collection<String> names) {
+        List<MockEmployee> removed = new ArrayList<>(names.size());
+        for (String name : names) {
+            removeFirstByName(name).ifPresent(removed::add);
+        }
+        return removed;
+    }
+
+    public synchronized Optional<MockEmployee> removeFirstByName(String name) {
+        ConcurrentSkipListSet<Long> sequences = sequencesByName.get(nameKey(name));
+        if (sequences == null || sequences.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(remove(sequences.first()));
+    }
+
+    /**
+     * Removes each employee by id, under one acquisition of the write lock; unknown ids are skipped. Returns the
+     * employees removed, in order.
+     */
+    public synchronized List<MockEmployee> removeAllById(Collection<UUID> ids) {
+        List<MockEmployee> removed = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            removeById(id).ifPresent(removed::add);
+        }
+        return removed;
+    }
+
+    public synchronized Optional<MockEmployee> removeById(UUID id) {
+        Long sequence = sequenceById.get(id);
+        return sequence == null ? Optional.empty() : Optional.of(remove(sequence));
+    }
+
+    // called with the lock held
+    private MockEmployee remove(long sequence) {
+        MockEmployee employee = bySequence.remove(sequence);
+        if (Objects.nonNull(employee.getId())) {
+            sequenceById.remove(employee.getId(), sequence);
+        }
+        if (Objects.nonNull(employee.getName())) {
+            String key = nameKey(employee.getName());
+            ConcurrentSkipListSet<Long> sequences = sequencesByName.get(key);
+            sequences.remove(sequence);
+            if (sequences.isEmpty()) {
+                sequencesByName.remove(key);
+            }
+        }
+        if (Objects.nonNull(employee.getSalary())) {
+            bySalary.remove(new SalaryKey(employee.getSalary(), sequence));
+        }
+        record(MockEmployeeChange.Type.DELETED, employee);
+        return employee;
+    }
+
+    // called with the lock held, after the write is visible
+    private void record(MockEmployeeChange.Type type, MockEmployee employee) {
+        MockEmployeeChange change = new MockEmployeeChange(version + 1, type, employee);
+        if (changeLogCapacity > 0) {
+            if (changeLog.size() == changeLogCapacity) {
+                changeLog.pollFirst();
+            }
+            changeLog.addLast(change);
+        }
+        version = change.version();
+        listeners.forEach(listener -> listener.accept(change));
+    }
+
+    /*
+     * Folds case the way String.equalsIgnoreCase compares characters, so two names share a key exactly when
+     * equalsIgnoreCase considers them equal.
+     */
+    static String nameKey(String name) {
+        StringBuilder key = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            key.append(Character.toLowerCase(Character.toUpperCase(name.charAt(i))));
+        }
+        return key.toString();
+    }
+
+    private record SalaryKey(int salary, long sequence) implements Comparable<SalaryKey> {
+
+        @Override
+        public int compareTo(SalaryKey other) {
+            int bySalary = Integer.compare(other.salary, salary);
+            return bySalary != 0 ? bySalary : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * One page of employees; {@code nextSequence} is null on the last page.
+     */
+    public record Page(List<MockEmployee> employees, Long nextSequence) {}
+
+    /**
+     * Changes in version order; applying them brings a client to {@code version}.
+     */
+    public record ChangeSet(List<MockEmployeeChange> changes, long version) {}
+}
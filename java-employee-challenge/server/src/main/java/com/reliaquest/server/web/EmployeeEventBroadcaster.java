@@ -0,0 +1,188 @@
+package com.reliaquest.server.web;
+
+import com.reliaquest.server.model.MockEmployeeChange;
+import com.reliaquest.server.service.MockEmployeeService;
+import com.reliaquest.server.service.MockEmployeeStore;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes employee creates and deletes to server-sent event subscribers.
+ *
+ * <p>The store hands each change to a queue while it holds its write lock; one dispatcher thread owns the subscribers
+ * and sends from that queue, so events go out in version order and a slow client never holds up a write. Each
+ * {@code change} event carries the change as JSON and the entity tag of its version as the event id.
+ *
+ * <p>A subscriber that sends {@code Last-Event-ID} is first replayed the changes after that tag from the store's change
+ * log. When the log no longer reaches back that far it gets a {@code resync} event and the stream is closed, so it can
+ * reload the list and subscribe again with the new tag. Either way a {@code ready} event, whose id is the tag the
+ * subscriber is now at, marks the switch to live events. Subscribing is queued with the changes, and changes a
+ * subscriber has already been sent are skipped, so nothing is lost or repeated between the replay and live events.
+ *
+ * <p>An idle stream gets a comment every {@code heartbeat}, which keeps proxies from closing it and lets clients tell
+ * a dead connection from a quiet one.
+ */
+@Slf4j
+public class EmployeeEventBroadcaster implements Closeable {
+
+    private final MockEmployeeService mockEmployeeService;
+    private final MockEmployeeStore mockEmployees;
+    private final long heartbeatNanos;
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private final Thread dispatcher;
+    private volatile boolean closed;
+
+    // owned by the dispatcher thread
+    private final List<Subscriber> subscribers = new ArrayList<>();
+
+    public EmployeeEventBroadcaster(
+            MockEmployeeService mockEmployeeService, MockEmployeeStore mockEmployees, Duration heartbeat) {
+        this.mockEmployeeService = mockEmployeeService;
+        this.mockEmployees = mockEmployees;
+        this.heartbeatNanos = heartbeat.toNanos();
+        this.dispatcher = new Thread(this::dispatchLoop, "employee-events");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+        mockEmployees.addListener(queue::add);
+    }
+
+    /**
+     * Opens a stream of changes after {@code lastEventId}, or after the current version when it is null.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        final var emitter = new SseEmitter(0L);
+        if (closed) {
+            emitter.complete();
+            return emitter;
+        }
+        final var subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscriber.closed = true);
+        emitter.onError(ex -> subscriber.closed = true);
+        // without a tag, start from the version at the time of the call, not when the dispatcher gets to it
+        final String since =
+                lastEventId == null ? mockEmployeeService.quotedEtag(mockEmployees.version()) : lastEventId;
+        queue.add(new Subscribe(subscriber, since));
+        return emitter;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        dispatcher.interrupt();
+        try {
+            dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dispatchLoop() {
+        long nextHeartbeat = System.nanoTime() + heartbeatNanos;
+        while (!closed) {
+            final Object next;
+            try {
+                next = queue.poll(Math.max(0, nextHeartbeat - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                break;
+            }
+            if (next instanceof MockEmployeeChange change) {
+                subscribers.removeIf(subscriber -> !send(subscriber, change));
+            } else if (next instanceof Subscribe subscribe) {
+                start(subscribe);
+            }
+            if (System.nanoTime() - nextHeartbeat >= 0) {
+                subscribers.removeIf(subscriber -> !sendHeartbeat(subscriber));
+                nextHeartbeat = System.nanoTime() + heartbeatNanos;
+            }
+        }
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private void start(Subscribe subscribe) {
+        final var subscriber = subscribe.subscriber();
+        final Optional<MockEmployeeStore.ChangeSet> replay =
+                mockEmployeeService.getChangeSetSince(subscribe.lastEventId());
+        try {
+            if (replay.isEmpty()) {
+                subscriber.emitter.send(SseEmitter.event().name("resync").data(""));
+                subscriber.emitter.complete();
+                return;
+            }
+            for (MockEmployeeChange change : replay.get().changes()) {
+                sendChange(subscriber, change);
+            }
+            subscriber.lastVersion = replay.get().version();
+            final String etag = mockEmployeeService.quotedEtag(subscriber.lastVersion);
+            subscriber.emitter.send(SseEmitter.event().name("ready").id(etag).data(etag));
+            subscribers.add(subscriber);
+            log.debug(
+                    "Employee event subscriber ready at {} after replaying {} changes ({} subscribers)",
+                    etag,
+                    replay.get().changes().size(),
+                    subscribers.size());
+        } catch (IOException | IllegalStateException ex) {
+            subscriber.emitter.completeWithError(ex);
+        }
+    }
+
+    private boolean send(Subscriber subscriber, MockEmployeeChange change) {
+        if (subscriber.closed) {
+            return false;
+        }
+        if (change.version() <= subscriber.lastVersion) {
+            return true;
+        }
+        try {
+            sendChange(subscriber, change);
+            subscriber.lastVersion = change.version();
+            return true;
+        } catch (IOException | IllegalStateException ex) {
+            subscriber.emitter.completeWithError(ex);
+            return false;
+        }
+    }
+
+    private void sendChange(Subscriber subscriber, MockEmployeeChange change) throws IOException {
+        subscriber.emitter.send(SseEmitter.event()
+                .name("change")
+                .id(mockEmployeeService.quotedEtag(change.version()))
+                .data(change, MediaType.APPLICATION_JSON));
+    }
+
+    private boolean sendHeartbeat(Subscriber subscriber) {
+        if (subscriber.closed) {
+            return false;
+        }
+        try {
+            subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            return true;
+        } catch (IOException | IllegalStateException ex) {
+            subscriber.emitter.completeWithError(ex);
+            return false;
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private volatile boolean closed;
+        private long lastVersion;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    private record Subscribe(Subscriber subscriber, String lastEventId) {}
+}
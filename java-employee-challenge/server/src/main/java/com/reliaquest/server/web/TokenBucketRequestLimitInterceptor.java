@@ -0,0 +1,157 @@
+package com.reliaquest.server.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.random.RandomGenerator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Lock-free token bucket: {@code burst} requests can be made at once and the bucket refills at {@code ratePerSecond}.
+ * Refused requests get a 429 with a {@code Retry-After} header saying when the next token will be available, and do not
+ * consume a token.
+ *
+ * <p>The bucket is kept as a single theoretical arrival time (the generic cell rate algorithm): a request is admitted
+ * when that time is at most {@code burst - 1} emission intervals ahead of now, and admitting it moves the time one
+ * interval forward with a compare-and-set. The clock is read once per request.
+ *
+ * <p>With a client header configured, each value of that header (or the remote address when it is absent) gets its
+ * own bucket; otherwise one bucket is shared by all clients. At most {@code maxTrackedClients} buckets are kept: when
+ * the map is full, buckets that have refilled completely are dropped, and if every tracked client is still being
+ * throttled, new clients share one overflow bucket until room frees up.
+ */
+public class TokenBucketRequestLimitInterceptor implements HandlerInterceptor {
+
+    private static final int MAX_TRACKED_CLIENTS = 10_000;
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final String clientHeader;
+    private final LongSupplier nanoClock;
+    private final int maxTrackedClients;
+    // shared by all clients without a header, and by untracked clients once the map is full
+    private final AtomicLong sharedBucket;
+    // no tracked bucket can refill before this, so a full map is scanned at most once per emission interval
+    private final AtomicLong nextEvictionNanos;
+    private final ConcurrentHashMap<String, AtomicLong> clientBuckets = new ConcurrentHashMap<>();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public TokenBucketRequestLimitInterceptor(double ratePerSecond, int burst, String clientHeader) {
+        this(ratePerSecond, burst, clientHeader, System::nanoTime);
+    }
+
+    TokenBucketRequestLimitInterceptor(double ratePerSecond, int burst, String clientHeader, LongSupplier nanoClock) {
+        this(ratePerSecond, burst, clientHeader, nanoClock, MAX_TRACKED_CLIENTS);
+    }
+
+    TokenBucketRequestLimitInterceptor(
+            double ratePerSecond, int burst, String clientHeader, LongSupplier nanoClock, int maxTrackedClients) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("rate must be positive and burst at least 1");
+        }
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.clientHeader = clientHeader == null || clientHeader.isBlank() ? null : clientHeader;
+        this.nanoClock = nanoClock;
+        this.maxTrackedClients = maxTrackedClients;
+        this.sharedBucket = new AtomicLong(nanoClock.getAsLong());
+        this.nextEvictionNanos = new AtomicLong(sharedBucket.get());
+    }
+
+    /**
+     * Limits in the spirit of the original mock: a burst of 5 to 9 requests, refilled over 30 to 89 seconds.
+     */
+    public static TokenBucketRequestLimitInterceptor random(RandomGenerator random, String clientHeader) {
+        final int burst = random.nextInt(5, 10);
+        final int refillSeconds = random.nextInt(30, 90);
+        return new TokenBucketRequestLimitInterceptor((double) burst / refillSeconds, burst, clientHeader);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        final long now = nanoClock.getAsLong();
+        final long waitNanos = tryAcquire(bucketFor(request, now), now);
+        if (waitNanos > 0) {
+            rejected.increment();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(toRetryAfterSeconds(waitNanos)));
+            return false;
+        }
+        admitted.increment();
+        return true;
+    }
+
+    public long admittedCount() {
+        return admitted.sum();
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    public double ratePerSecond() {
+        return (double) TimeUnit.SECONDS.toNanos(1) / emissionIntervalNanos;
+    }
+
+    public int burst() {
+        return (int) (burstToleranceNanos / emissionIntervalNanos) + 1;
+    }
+
+    /*
+     * Returns 0 when a token was taken, otherwise how long until one is available.
+     */
+    long tryAcquire(AtomicLong bucket, long now) {
+        while (true) {
+            final long arrival = bucket.get();
+            final long base = arrival - now > 0 ? arrival : now;
+            final long ahead = base - now;
+            if (ahead > burstToleranceNanos) {
+                return ahead - burstToleranceNanos;
+            }
+            if (bucket.compareAndSet(arrival, base + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    private AtomicLong bucketFor(HttpServletRequest request, long now) {
+        if (clientHeader == null) {
+            return sharedBucket;
+        }
+        final String header = request.getHeader(clientHeader);
+        final String key = header == null || header.isBlank() ? request.getRemoteAddr() : header;
+        final AtomicLong tracked = clientBuckets.get(key);
+        if (tracked != null) {
+            return tracked;
+        }
+        if (clientBuckets.size() >= maxTrackedClients && !evictRefilled(now)) {
+            return sharedBucket;
+        }
+        return clientBuckets.computeIfAbsent(key, ignored -> new AtomicLong(now));
+    }
+
+    /*
+     * A bucket whose arrival time has passed is full, which is what a new bucket would be, so dropping it loses
+     * nothing. Returns whether there is room for another client afterwards.
+     */
+    private boolean evictRefilled(long now) {
+        final long next = nextEvictionNanos.get();
+        if (next - now > 0 || !nextEvictionNanos.compareAndSet(next, now + emissionIntervalNanos)) {
+            return clientBuckets.size() < maxTrackedClients;
+        }
+        clientBuckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        return clientBuckets.size() < maxTrackedClients;
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        // round up: retrying after a truncated delay would be refused again
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,151 @@
+package com.reliaquest.server.service;
+
+import static com.reliaquest.server.service.MockEmployeeStoreTest.employee;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JournaledMockEmployeeStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final AtomicInteger seeded = new AtomicInteger();
+    private final MockEmployee seed = employee("Seed", 50);
+
+    @Test
+    void shouldRecoverCreatesAndDeletes_whenReopened() throws IOException {
+        MockEmployee alice = employee("Alice", 100);
+        MockEmployee bob = employee("Bob", 200);
+        try (var store = open(100)) {
+            store.add(alice);
+            store.addAll(List.of(bob, employee("Carol", 300)));
+            store.removeFirstByName("carol");
+            store.removeAllByName(List.of("Seed"));
+            store.add(employee("Alice", 500));
+            store.removeAllById(List.of(store.list().get(2).getId()));
+        }
+
+        try (var store = open(100)) {
+            assertEquals(List.of(alice, bob), store.list());
+            assertEquals(bob, store.findById(bob.getId()).orElseThrow());
+        }
+        assertEquals(1, seeded.get());
+    }
+
+    @Test
+    void shouldTrimTornTail_whenLastWriteWasCutShort() throws IOException {
+        MockEmployee alice = employee("Alice", 100);
+        try (var store = open(100)) {
+            store.add(alice);
+        }
+        Path journal = MockEmployeeJournal.file(directory, 1);
+        long intact = Files.size(journal);
+        Files.write(journal, new byte[] {0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+
+        try (var store = open(100)) {
+            assertEquals(List.of(seed, alice), store.list());
+        }
+        assertEquals(intact, Files.size(journal));
+    }
+
+    @Test
+    void shouldCompactIntoSnapshotAndDropOldFiles_whenEnoughEntriesJournaled() throws Exception {
+        MockEmployee late = employee("Late", 400);
+        try (var store = open(3)) {
+            store.addAll(List.of(employee("Alice", 100), employee("Bob", 200), employee("Carol", 300)));
+            awaitFiles(Set.of("snapshot-2.bin", "journal-2.log"));
+            store.add(late);
+            store.removeFirstByName("Bob");
+        }
+
+        try (var store = open(3)) {
+            assertEquals(
+                    List.of("Seed", "Alice", "Carol", "Late"),
+                    store.list().stream().map(MockEmployee::getName).toList());
+        }
+        assertEquals(1, seeded.get());
+    }
+
+    @Test
+    void shouldFinishRunningCompaction_beforeClosing() throws IOException {
+        try (var store = open(3)) {
+            store.addAll(List.of(employee("Alice", 100), employee("Bob", 200), employee("Carol", 300)));
+        }
+
+        assertEquals(Set.of("snapshot-2.bin", "journal-2.log"), files());
+    }
+
+    @Test
+    void shouldFallBackToPreviousSnapshotAndItsJournals_whenNewestSnapshotIsCorrupt() throws IOException {
+        MockEmployee alice = employee("Alice", 100);
+        MockEmployee bob = employee("Bob", 200);
+        try (var store = open(100)) {
+            store.add(alice);
+            store.add(bob);
+        }
+        writeTruncatedSnapshot(directory.resolve("snapshot-2.bin"));
+
+        try (var store = open(100)) {
+            assertEquals(List.of(seed, alice, bob), store.list());
+        }
+        assertEquals(1, seeded.get());
+    }
+
+    @Test
+    void shouldFailToOpen_whenNoSnapshotIsReadable() throws IOException {
+        try (var store = open(100)) {
+            store.add(employee("Alice", 100));
+        }
+        writeTruncatedSnapshot(directory.resolve("snapshot-0.bin"));
+
+        IOException ex = assertThrows(IOException.class, () -> open(100));
+        assertTrue(ex.getMessage().startsWith("No readable employee snapshot"), ex.getMessage());
+        assertEquals(1, seeded.get());
+    }
+
+    // what a crash between writing a snapshot and syncing it could leave behind
+    private static void writeTruncatedSnapshot(Path file) throws IOException {
+        MockEmployeeSnapshotFile.write(file, List.of(employee("Lost", 1), employee("Lost", 2)));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() / 2);
+        }
+    }
+
+    private JournaledMockEmployeeStore open(int compactEvery) throws IOException {
+        return JournaledMockEmployeeStore.open(
+                directory,
+                () -> {
+                    seeded.incrementAndGet();
+                    return List.of(seed);
+                },
+                compactEvery,
+                false);
+    }
+
+    private void awaitFiles(Set<String> expected) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!files().equals(expected)) {
+            assertTrue(System.nanoTime() < deadline, "files were " + files());
+            Thread.sleep(10);
+        }
+    }
+
+    private Set<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).collect(Collectors.toSet());
+        }
+    }
+}
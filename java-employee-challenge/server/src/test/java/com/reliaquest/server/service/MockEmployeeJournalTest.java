@@ -0,0 +1,121 @@
+package com.reliaquest.server.service;
+
+import static com.reliaquest.server.service.MockEmployeeStoreTest.employee;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MockEmployeeJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReplayEntriesInOrder_whenAppended() throws IOException {
+        MockEmployee alice = employee("Alice", 100);
+        MockEmployee bob = employee("Bob", 200);
+        try (var journal = new MockEmployeeJournal(directory, 1, true)) {
+            CompletableFuture.allOf(
+                            journal.append(new MockEmployeeJournal.Created(alice)),
+                            journal.append(new MockEmployeeJournal.Created(bob)),
+                            journal.append(new MockEmployeeJournal.Deleted("Alice")),
+                            journal.append(new MockEmployeeJournal.DeletedById(bob.getId())))
+                    .join();
+        }
+
+        List<MockEmployeeJournal.Entry> entries = new ArrayList<>();
+        Path file = MockEmployeeJournal.file(directory, 1);
+        long validLength = MockEmployeeJournal.replay(file, entries::add);
+
+        assertEquals(Files.size(file), validLength);
+        assertEquals(
+                List.of(
+                        new MockEmployeeJournal.Created(alice),
+                        new MockEmployeeJournal.Created(bob),
+                        new MockEmployeeJournal.Deleted("Alice"),
+                        new MockEmployeeJournal.DeletedById(bob.getId())),
+                entries);
+    }
+
+    @Test
+    void shouldStopAtTornTail_whenLastFrameIsIncomplete() throws IOException {
+        Path file = writeTwoEntries();
+        long intact = lengthAfterFirstEntry(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        List<MockEmployeeJournal.Entry> entries = new ArrayList<>();
+        assertEquals(intact, MockEmployeeJournal.replay(file, entries::add));
+        assertEquals(1, entries.size());
+    }
+
+    @Test
+    void shouldStopAtCorruptFrame_whenChecksumDoesNotMatch() throws IOException {
+        Path file = writeTwoEntries();
+        long intact = lengthAfterFirstEntry(file);
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            long lastByte = raw.length() - 1;
+            raw.seek(lastByte);
+            int value = raw.read();
+            raw.seek(lastByte);
+            raw.write(value ^ 0xFF);
+        }
+
+        List<MockEmployeeJournal.Entry> entries = new ArrayList<>();
+        assertEquals(intact, MockEmployeeJournal.replay(file, entries::add));
+        assertEquals(1, entries.size());
+    }
+
+    @Test
+    void shouldWriteLaterEntriesToNextGeneration_whenRotated() throws IOException {
+        try (var journal = new MockEmployeeJournal(directory, 1, false)) {
+            journal.append(new MockEmployeeJournal.Deleted("first"));
+            journal.rotate(2).join();
+            journal.append(new MockEmployeeJournal.Deleted("second")).join();
+        }
+
+        List<MockEmployeeJournal.Entry> first = new ArrayList<>();
+        List<MockEmployeeJournal.Entry> second = new ArrayList<>();
+        MockEmployeeJournal.replay(MockEmployeeJournal.file(directory, 1), first::add);
+        MockEmployeeJournal.replay(MockEmployeeJournal.file(directory, 2), second::add);
+
+        assertEquals(List.of(new MockEmployeeJournal.Deleted("first")), first);
+        assertEquals(List.of(new MockEmployeeJournal.Deleted("second")), second);
+    }
+
+    @Test
+    void shouldFailAppend_whenClosed() throws IOException {
+        var journal = new MockEmployeeJournal(directory, 1, false);
+        journal.close();
+
+        CompletableFuture<Void> append = journal.append(new MockEmployeeJournal.Deleted("late"));
+
+        assertTrue(append.isCompletedExceptionally());
+    }
+
+    private Path writeTwoEntries() throws IOException {
+        try (var journal = new MockEmployeeJournal(directory, 1, false)) {
+            journal.append(new MockEmployeeJournal.Created(employee("Alice", 100)));
+            journal.append(new MockEmployeeJournal.Created(employee("Bruce", 200)))
+                    .join();
+        }
+        return MockEmployeeJournal.file(directory, 1);
+    }
+
+    // both entries have the same length, so the first one ends halfway through the file
+    private static long lengthAfterFirstEntry(Path file) throws IOException {
+        return Files.size(file) / 2;
+    }
+}
@@ -0,0 +1,61 @@
+package com.reliaquest.server.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class MockEmployeeSeederTest {
+
+    // spans more than one chunk, so chunk scheduling cannot change the result
+    private static final int COUNT = 5000;
+
+    @Test
+    void shouldGenerateSameEmployees_whenSeedIsSame() {
+        List<MockEmployee> first = new MockEmployeeSeeder(42, Locale.ENGLISH).generate(COUNT);
+        List<MockEmployee> second = new MockEmployeeSeeder(42, Locale.ENGLISH).generate(COUNT);
+
+        assertEquals(COUNT, first.size());
+        assertEquals(first, second);
+    }
+
+    @Test
+    void shouldGenerateOtherEmployees_whenSeedDiffers() {
+        List<MockEmployee> first = new MockEmployeeSeeder(42, Locale.ENGLISH).generate(10);
+        List<MockEmployee> second = new MockEmployeeSeeder(43, Locale.ENGLISH).generate(10);
+
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void shouldGiveEveryChunkOfNearbySeedsItsOwnRandomSeed() {
+        Set<Long> chunkSeeds = new HashSet<>();
+        for (long seed = 0; seed < 100; seed++) {
+            for (int chunk = 0; chunk < 100; chunk++) {
+                chunkSeeds.add(MockEmployeeSeeder.chunkSeed(seed, chunk));
+            }
+        }
+
+        assertEquals(100 * 100, chunkSeeds.size());
+    }
+
+    @Test
+    void shouldGenerateValidEmployees_whenCountIsNotAMultipleOfTheChunkSize() {
+        List<MockEmployee> employees = new MockEmployeeSeeder(7, Locale.ENGLISH).generate(COUNT);
+
+        assertEquals(
+                COUNT, new HashSet<>(employees.stream().map(MockEmployee::getId).toList()).size());
+        for (MockEmployee employee : employees) {
+            assertEquals(4, employee.getId().version());
+            assertTrue(employee.getSalary() >= 30000 && employee.getSalary() < 500000);
+            assertTrue(employee.getAge() >= 16 && employee.getAge() < 70);
+            assertTrue(employee.getEmail().endsWith("@company.com"));
+            assertFalse(employee.getName().isBlank());
+        }
+        assertTrue(new MockEmployeeSeeder(7, Locale.ENGLISH).generate(0).isEmpty());
+    }
+}
@@ -0,0 +1,74 @@
+package com.reliaquest.server.service;
+
+import static com.reliaquest.server.service.MockEmployeeStoreTest.employee;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChange;
+import com.reliaquest.server.model.MockEmployeeChanges;
+import com.reliaquest.server.model.MockEmployeePage;
+import java.util.List;
+import java.util.Locale;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.Test;
+
+class MockEmployeeServiceTest {
+
+    private final MockEmployeeStore store = new MockEmployeeStore(10);
+    private final MockEmployeeService service = new MockEmployeeService(new Faker(Locale.ENGLISH), store);
+
+    @Test
+    void shouldReturnChangesSinceEtag_whenTagIsQuotedWeakOrBare() {
+        store.add(employee("Alice", 100));
+        String etag = service.currentEtag();
+        MockEmployee bob = employee("Bob", 200);
+        store.add(bob);
+
+        for (String since : List.of(etag, "\"" + etag + "\"", "W/\"" + etag + "\"")) {
+            MockEmployeeChanges changes = service.getChangesSince(since);
+
+            assertFalse(changes.resync());
+            assertEquals(1, changes.changes().size());
+            assertEquals(
+                    MockEmployeeChange.Type.CREATED, changes.changes().get(0).type());
+            assertEquals(bob, changes.changes().get(0).employee());
+            assertEquals("\"" + service.currentEtag() + "\"", changes.etag());
+        }
+    }
+
+    @Test
+    void shouldAskForResync_whenEtagIsFromAnotherStoreOrTooOld() {
+        String foreign = new MockEmployeeService(new Faker(Locale.ENGLISH), new MockEmployeeStore()).currentEtag();
+        String oldest = service.currentEtag();
+        for (int i = 0; i < 11; i++) {
+            store.add(employee("Employee" + i, 100));
+        }
+
+        for (String since : List.of(foreign, oldest, "garbage", service.currentEtag() + "0")) {
+            MockEmployeeChanges changes = service.getChangesSince(since);
+
+            assertTrue(changes.resync(), since);
+            assertTrue(changes.changes().isEmpty());
+            assertNull(changes.etag());
+        }
+    }
+
+    @Test
+    void shouldWalkAllEmployees_whenFollowingCursors() {
+        List<MockEmployee> employees = List.of(employee("A", 1), employee("B", 2), employee("C", 3));
+        store.addAll(employees);
+
+        MockEmployeePage first = service.getMockEmployeePage(null, 2);
+        MockEmployeePage second = service.getMockEmployeePage(first.nextCursor(), 2);
+
+        assertEquals(employees.subList(0, 2), first.employees());
+        assertEquals(employees.subList(2, 3), second.employees());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void shouldRejectCursor_whenNotIssuedByService() {
+        assertThrows(IllegalArgumentException.class, () -> service.getMockEmployeePage("abc", 2));
+        assertThrows(IllegalArgumentException.class, () -> service.getMockEmployeePage("-5", 2));
+    }
+}
@@ -0,0 +1,114 @@
+package com.reliaquest.server.service;
+
+import static com.reliaquest.server.service.MockEmployeeStoreTest.employee;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MockEmployeeSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReadBackEveryField_whenRoundTripped() throws IOException {
+        Path file = directory.resolve("employees.bin");
+        List<MockEmployee> employees = List.of(
+                employee("Zo\u00eb \u00c5ngstr\u00f6m", 123_456),
+                new MockEmployee(null, null, null, null, null, null),
+                employee("", 1));
+
+        MockEmployeeSnapshotFile.write(file, employees);
+
+        assertEquals(employees, MockEmployeeSnapshotFile.read(file));
+        try (var files = Files.list(directory)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    @Test
+    void shouldReplaceExistingSnapshot_whenWrittenAgain() throws IOException {
+        Path file = directory.resolve("employees.bin");
+        MockEmployeeSnapshotFile.write(file, List.of(employee("Old", 1)));
+        List<MockEmployee> current = List.of(employee("New", 2));
+
+        MockEmployeeSnapshotFile.write(file, current);
+
+        assertEquals(current, MockEmployeeSnapshotFile.read(file));
+    }
+
+    @Test
+    void shouldReadSeededSnapshot_onlyForSameMaxSeedAndLocale() throws IOException {
+        Path file = directory.resolve("employees.bin");
+        List<MockEmployee> employees = List.of(employee("Alice", 100));
+        MockEmployeeSnapshotFile.write(file, employees, new MockEmployeeSnapshotFile.Seed(42, 20, Locale.US));
+
+        assertEquals(
+                Optional.of(employees),
+                MockEmployeeSnapshotFile.readSeeded(file, new MockEmployeeSnapshotFile.Seed(42, 20, Locale.US)));
+        assertTrue(MockEmployeeSnapshotFile.readSeeded(file, new MockEmployeeSnapshotFile.Seed(43, 20, Locale.US))
+                .isEmpty());
+        assertTrue(MockEmployeeSnapshotFile.readSeeded(file, new MockEmployeeSnapshotFile.Seed(42, 21, Locale.US))
+                .isEmpty());
+        assertTrue(MockEmployeeSnapshotFile.readSeeded(file, new MockEmployeeSnapshotFile.Seed(42, 20, Locale.GERMANY))
+                .isEmpty());
+        assertEquals(employees, MockEmployeeSnapshotFile.read(file));
+    }
+
+    @Test
+    void shouldNotTreatVersion2SnapshotAsSeeded_becauseItHasNoLocale() throws IOException {
+        Path file = directory.resolve("employees.bin");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+            out.writeInt(0x4d454d50);
+            out.writeInt(2);
+            out.writeInt(20);
+            out.writeLong(42);
+            out.writeInt(0);
+        }
+
+        assertTrue(MockEmployeeSnapshotFile.readSeeded(file, new MockEmployeeSnapshotFile.Seed(42, 20, Locale.US))
+                .isEmpty());
+        assertEquals(List.of(), MockEmployeeSnapshotFile.read(file));
+    }
+
+    @Test
+    void shouldNotTreatSnapshotAsSeeded_whenWrittenWithoutSeed() throws IOException {
+        Path file = directory.resolve("employees.bin");
+        MockEmployeeSnapshotFile.write(file, List.of(employee("Alice", 100)));
+
+        assertTrue(MockEmployeeSnapshotFile.readSeeded(file, new MockEmployeeSnapshotFile.Seed(0, 1, Locale.US))
+                .isEmpty());
+    }
+
+    @Test
+    void shouldRejectSnapshot_whenTruncated() throws IOException {
+        Path file = directory.resolve("employees.bin");
+        MockEmployeeSnapshotFile.write(file, List.of(employee("Alice", 100), employee("Bob", 200)));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        IOException ex = assertThrows(IOException.class, () -> MockEmployeeSnapshotFile.read(file));
+        assertTrue(ex.getMessage().startsWith("Corrupt employee snapshot"), ex.getMessage());
+    }
+
+    @Test
+    void shouldRejectFile_whenMagicDoesNotMatch() throws IOException {
+        Path file = directory.resolve("employees.bin");
+        Files.write(file, new byte[] {0, 1, 2, 3, 0, 0, 0, 1, 0, 0, 0, 0});
+
+        IOException ex = assertThrows(IOException.class, () -> MockEmployeeSnapshotFile.read(file));
+        assertTrue(ex.getMessage().startsWith("Not an employee snapshot"), ex.getMessage());
+    }
+}
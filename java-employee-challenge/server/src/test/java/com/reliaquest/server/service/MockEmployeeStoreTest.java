@@ -0,0 +1,177 @@
+package com.reliaquest.server.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChange;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class MockEmployeeStoreTest {
+
+    private final MockEmployeeStore store = new MockEmployeeStore(3);
+
+    @Test
+    void shouldFindByIdAndListInInsertionOrder_whenEmployeesAdded() {
+        MockEmployee alice = employee("Alice", 100);
+        MockEmployee bob = employee("Bob", 200);
+        store.add(alice);
+        store.add(bob);
+
+        assertEquals(List.of(alice, bob), store.list());
+        assertEquals(alice, store.findById(alice.getId()).orElseThrow());
+        assertTrue(store.findById(UUID.randomUUID()).isEmpty());
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void shouldRefuseAndKeepIndexesIntact_whenIdAlreadyStored() {
+        MockEmployee alice = employee("Alice", 100);
+        store.add(alice);
+        MockEmployee impostor = alice.toBuilder().name("Mallory").salary(900).build();
+
+        assertThrows(IllegalArgumentException.class, () -> store.add(impostor));
+        assertThrows(IllegalArgumentException.class, () -> store.addAll(List.of(employee("Bob", 200), impostor)));
+        MockEmployee carol = employee("Carol", 300);
+        assertThrows(IllegalArgumentException.class, () -> store.addAll(List.of(carol, carol)));
+
+        assertEquals(List.of(alice), store.list());
+        assertEquals(OptionalInt.of(100), store.highestSalary());
+        assertTrue(store.removeFirstByName("Mallory").isEmpty());
+        assertEquals(alice, store.removeById(alice.getId()).orElseThrow());
+        assertEquals(0, store.size());
+        assertTrue(store.highestSalary().isEmpty());
+        assertEquals(2, store.version());
+    }
+
+    @Test
+    void shouldRemoveOldestMatch_whenDeletingByNameIgnoringCase() {
+        MockEmployee first = employee("Alice", 100);
+        MockEmployee second = employee("ALICE", 200);
+        store.add(first);
+        store.add(second);
+
+        assertEquals(first, store.removeFirstByName("alice").orElseThrow());
+        assertTrue(store.findById(first.getId()).isEmpty());
+        assertEquals(List.of(second), store.list());
+        assertEquals(List.of(second), store.removeAllByName(List.of("aLiCe", "alice")));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void shouldRemoveExactEmployee_whenDeletingByIdAmongNamesakes() {
+        MockEmployee first = employee("Alice", 100);
+        MockEmployee second = employee("Alice", 200);
+        MockEmployee bob = employee("Bob", 300);
+        store.addAll(List.of(first, second, bob));
+
+        assertEquals(
+                List.of(second, bob), store.removeAllById(List.of(second.getId(), UUID.randomUUID(), bob.getId())));
+        assertTrue(store.removeById(second.getId()).isEmpty());
+        assertEquals(List.of(first), store.list());
+        assertEquals(List.of(first), store.topBySalary(10));
+        assertEquals(first, store.removeFirstByName("alice").orElseThrow());
+        assertTrue(store.removeFirstByName("alice").isEmpty());
+    }
+
+    @Test
+    void shouldOrderBySalaryThenInsertion_whenReadingTopEarners() {
+        MockEmployee low = employee("Low", 100);
+        MockEmployee firstHigh = employee("First", 300);
+        MockEmployee secondHigh = employee("Second", 300);
+        MockEmployee unpaid = employee("Unpaid", null);
+        store.addAll(List.of(low, firstHigh, secondHigh, unpaid));
+
+        assertEquals(300, store.highestSalary().orElseThrow());
+        assertEquals(List.of(firstHigh, secondHigh), store.topBySalary(2));
+        assertEquals(List.of(firstHigh, secondHigh, low), store.topBySalary(10));
+
+        store.removeFirstByName("First");
+        assertEquals(List.of(secondHigh, low), store.topBySalary(10));
+    }
+
+    @Test
+    void shouldPageWithoutSkippingOrRepeating_whenStoreChangesBetweenPages() {
+        List<MockEmployee> employees = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            employees.add(employee("Employee" + i, 100 + i));
+        }
+        store.addAll(employees);
+
+        MockEmployeeStore.Page first = store.page(-1, 2);
+        assertEquals(employees.subList(0, 2), first.employees());
+        assertNotNull(first.nextSequence());
+
+        store.removeFirstByName("Employee0");
+        store.removeFirstByName("Employee2");
+        MockEmployee late = employee("Late", 1);
+        store.add(late);
+
+        MockEmployeeStore.Page second = store.page(first.nextSequence(), 2);
+        assertEquals(List.of(employees.get(3), employees.get(4)), second.employees());
+        MockEmployeeStore.Page last = store.page(second.nextSequence(), 2);
+        assertEquals(List.of(late), last.employees());
+        assertNull(last.nextSequence());
+    }
+
+    @Test
+    void shouldReturnChangesSinceVersion_whenLogStillReachesBack() {
+        MockEmployee alice = employee("Alice", 100);
+        store.add(alice);
+        long since = store.version();
+        MockEmployee bob = employee("Bob", 200);
+        store.add(bob);
+        store.removeFirstByName("Alice");
+
+        MockEmployeeStore.ChangeSet changes = store.changesSince(since).orElseThrow();
+
+        assertEquals(store.version(), changes.version());
+        assertEquals(
+                List.of(MockEmployeeChange.Type.CREATED, MockEmployeeChange.Type.DELETED),
+                changes.changes().stream().map(MockEmployeeChange::type).toList());
+        assertEquals(
+                List.of(bob, alice),
+                changes.changes().stream().map(MockEmployeeChange::employee).toList());
+        assertTrue(store.changesSince(store.version()).orElseThrow().changes().isEmpty());
+    }
+
+    @Test
+    void shouldAskForResync_whenLogNoLongerReachesBackOrVersionIsAhead() {
+        long since = store.version();
+        for (int i = 0; i < 4; i++) {
+            store.add(employee("Employee" + i, 100));
+        }
+
+        assertTrue(store.changesSince(since).isEmpty());
+        assertEquals(3, store.changesSince(since + 1).orElseThrow().changes().size());
+        assertTrue(store.changesSince(store.version() + 1).isEmpty());
+    }
+
+    @Test
+    void shouldNotifyListenersInVersionOrder_whenWritesApplied() {
+        List<Long> versions = new ArrayList<>();
+        store.addListener(change -> versions.add(change.version()));
+
+        store.add(employee("Alice", 100));
+        store.addAll(List.of(employee("Bob", 200), employee("Carol", 300)));
+        store.removeFirstByName("Bob");
+        store.removeFirstByName("Nobody");
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), versions);
+        assertEquals(4, store.version());
+    }
+
+    static MockEmployee employee(String name, Integer salary) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(salary)
+                .age(30)
+                .title("Engineer")
+                .email(name.toLowerCase() + "@company.com")
+                .build();
+    }
+}
@@ -0,0 +1,195 @@
+package com.reliaquest.server.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.server.controller.MockEmployeeController;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.service.MockEmployeeService;
+import com.reliaquest.server.service.MockEmployeeStore;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.LongStream;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class EmployeeEventBroadcasterTest {
+
+    private final MockEmployeeStore store = new MockEmployeeStore(1000);
+    private final MockEmployeeService service = new MockEmployeeService(new Faker(Locale.ENGLISH), store);
+    private final EmployeeEventBroadcaster events = new EmployeeEventBroadcaster(service, store, Duration.ofMinutes(1));
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(
+                    new MockEmployeeController(service, events, new ObjectMapper()))
+            .build();
+
+    @AfterEach
+    void tearDown() {
+        events.close();
+    }
+
+    @Test
+    void shouldReplayMissedChangesThenSendLive_whenLastEventIdGiven() throws Exception {
+        store.add(employee("Alice"));
+        String lastSeen = service.quotedEtag(store.version());
+        store.add(employee("Bob"));
+        store.add(employee("Carol"));
+
+        MvcResult stream = subscribe(lastSeen);
+        awaitEvents(stream, 3);
+        store.removeFirstByName("Bob");
+
+        List<Event> received = awaitEvents(stream, 4);
+        assertEquals(
+                List.of(
+                        new Event("change", service.quotedEtag(2)),
+                        new Event("change", service.quotedEtag(3)),
+                        new Event("ready", service.quotedEtag(3)),
+                        new Event("change", service.quotedEtag(4))),
+                received);
+        assertTrue(stream.getResponse().getContentAsString().contains("\"DELETED\""));
+    }
+
+    @Test
+    void shouldStartAtCurrentVersion_whenNoLastEventId() throws Exception {
+        store.add(employee("Alice"));
+
+        MvcResult stream = subscribe(null);
+        store.add(employee("Bob"));
+
+        // Bob is sent live or replayed before ready, depending on when the dispatcher takes the subscription
+        List<Event> received = awaitEvents(stream, 2);
+        assertEquals(
+                List.of(service.quotedEtag(2)),
+                received.stream()
+                        .filter(event -> event.name().equals("change"))
+                        .map(Event::id)
+                        .toList());
+        assertEquals(
+                1,
+                received.stream().filter(event -> event.name().equals("ready")).count());
+    }
+
+    @Test
+    void shouldSendResyncAndClose_whenLastEventIdNoLongerRetained() throws Exception {
+        var smallLog = new MockEmployeeStore(2);
+        var smallLogService = new MockEmployeeService(new Faker(Locale.ENGLISH), smallLog);
+        var smallLogEvents = new EmployeeEventBroadcaster(smallLogService, smallLog, Duration.ofMinutes(1));
+        try {
+            String lastSeen = smallLogService.quotedEtag(smallLog.version());
+            for (int i = 0; i < 3; i++) {
+                smallLog.add(employee("Employee" + i));
+            }
+
+            MvcResult stream = MockMvcBuilders.standaloneSetup(
+                            new MockEmployeeController(smallLogService, smallLogEvents, new ObjectMapper()))
+                    .build()
+                    .perform(events(lastSeen))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            assertEquals(List.of(new Event("resync", null)), awaitEvents(stream, 1));
+            // throws unless the emitter completes, which ends the request
+            stream.getAsyncResult(5000);
+        } finally {
+            smallLogEvents.close();
+        }
+    }
+
+    @Test
+    void shouldSendEveryVersionOnceAndInOrder_whenWritesRaceWithSubscribe() throws Exception {
+        store.add(employee("First"));
+        String lastSeen = service.quotedEtag(store.version());
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 200; i++) {
+                store.add(employee("Employee" + i));
+            }
+        });
+
+        writer.start();
+        MvcResult stream = subscribe(lastSeen);
+        writer.join();
+
+        List<Event> received = awaitEvents(stream, 201);
+        List<String> changeIds = received.stream()
+                .filter(event -> event.name().equals("change"))
+                .map(Event::id)
+                .toList();
+        assertEquals(
+                LongStream.rangeClosed(2, 201).mapToObj(service::quotedEtag).toList(), changeIds);
+        assertEquals(
+                1,
+                received.stream().filter(event -> event.name().equals("ready")).count());
+    }
+
+    private MvcResult subscribe(String lastEventId) throws Exception {
+        return mockMvc.perform(events(lastEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private static MockHttpServletRequestBuilder events(String lastEventId) {
+        MockHttpServletRequestBuilder request = get("/api/v1/employee/events");
+        return lastEventId == null ? request : request.header("Last-Event-ID", lastEventId);
+    }
+
+    private static List<Event> awaitEvents(MvcResult stream, int count) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (true) {
+            List<Event> received = parse(stream.getResponse().getContentAsString());
+            if (received.size() >= count) {
+                return received;
+            }
+            assertTrue(System.nanoTime() < deadline, "received only " + received);
+            Thread.sleep(10);
+        }
+    }
+
+    /*
+     * Named events from a text/event-stream body, ignoring comments, data lines and an event still being written.
+     */
+    private static List<Event> parse(String body) {
+        List<Event> events = new ArrayList<>();
+        int complete = body.lastIndexOf("\n\n");
+        if (complete < 0) {
+            return events;
+        }
+        for (String block : body.substring(0, complete).split("\n\n")) {
+            String name = null;
+            String id = null;
+            for (String line : block.split("\n")) {
+                if (line.startsWith("event:")) {
+                    name = line.substring("event:".length());
+                } else if (line.startsWith("id:")) {
+                    id = line.substring("id:".length());
+                }
+            }
+            if (name != null) {
+                events.add(new Event(name, id));
+            }
+        }
+        return events;
+    }
+
+    private static MockEmployee employee(String name) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(100)
+                .age(30)
+                .title("Engineer")
+                .email(name.toLowerCase() + "@company.com")
+                .build();
+    }
+
+    private record Event(String name, String id) {}
+}
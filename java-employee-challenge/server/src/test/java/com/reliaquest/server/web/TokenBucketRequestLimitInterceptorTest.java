@@ -0,0 +1,125 @@
+package com.reliaquest.server.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class TokenBucketRequestLimitInterceptorTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    // a burst of 3, then one request every 10 seconds
+    private final TokenBucketRequestLimitInterceptor limiter =
+            new TokenBucketRequestLimitInterceptor(0.1, 3, null, clock::get);
+
+    @Test
+    void shouldAdmitBurstThenRefuseWithRetryAfter_whenBucketIsEmpty() {
+        assertTrue(admitted(request()));
+        assertTrue(admitted(request()));
+        assertTrue(admitted(request()));
+
+        MockHttpServletResponse refused = new MockHttpServletResponse();
+        assertFalse(limiter.preHandle(request(), refused, null));
+        assertEquals(429, refused.getStatus());
+        assertEquals("10", refused.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(3, limiter.admittedCount());
+        assertEquals(1, limiter.rejectedCount());
+    }
+
+    @Test
+    void shouldRefillContinuously_whenTimePasses() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(admitted(request()));
+        }
+
+        advance(Duration.ofMillis(7500));
+        MockHttpServletResponse refused = new MockHttpServletResponse();
+        assertFalse(limiter.preHandle(request(), refused, null));
+        // 2.5 seconds until the next token, rounded up so the retry is not refused again
+        assertEquals("3", refused.getHeader(HttpHeaders.RETRY_AFTER));
+
+        advance(Duration.ofMillis(2500));
+        assertTrue(admitted(request()));
+        assertFalse(admitted(request()));
+
+        advance(Duration.ofSeconds(30));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(admitted(request()));
+        }
+        assertFalse(admitted(request()));
+    }
+
+    @Test
+    void shouldNotConsumeToken_whenRequestIsRefused() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(admitted(request()));
+        }
+        for (int i = 0; i < 5; i++) {
+            assertFalse(admitted(request()));
+        }
+
+        advance(Duration.ofSeconds(10));
+        assertTrue(admitted(request()));
+    }
+
+    @Test
+    void shouldKeepSeparateBuckets_whenClientHeaderConfigured() {
+        var perClient = new TokenBucketRequestLimitInterceptor(0.1, 1, "X-Client", clock::get);
+
+        assertTrue(perClient.preHandle(request("a"), new MockHttpServletResponse(), null));
+        assertFalse(perClient.preHandle(request("a"), new MockHttpServletResponse(), null));
+        assertTrue(perClient.preHandle(request("b"), new MockHttpServletResponse(), null));
+        // no header: keyed by remote address
+        assertTrue(perClient.preHandle(request(), new MockHttpServletResponse(), null));
+        assertFalse(perClient.preHandle(request(), new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    void shouldShareOverflowBucket_whenTrackedClientsAreAllThrottled() {
+        var perClient = new TokenBucketRequestLimitInterceptor(0.1, 1, "X-Client", clock::get, 2);
+
+        assertTrue(perClient.preHandle(request("a"), new MockHttpServletResponse(), null));
+        assertTrue(perClient.preHandle(request("b"), new MockHttpServletResponse(), null));
+        // a and b are still refilling, so c and d are not tracked and draw from one bucket
+        assertTrue(perClient.preHandle(request("c"), new MockHttpServletResponse(), null));
+        assertFalse(perClient.preHandle(request("d"), new MockHttpServletResponse(), null));
+        assertFalse(perClient.preHandle(request("a"), new MockHttpServletResponse(), null));
+
+        // a and b have refilled and make room for d
+        advance(Duration.ofSeconds(10));
+        assertTrue(perClient.preHandle(request("d"), new MockHttpServletResponse(), null));
+        assertFalse(perClient.preHandle(request("d"), new MockHttpServletResponse(), null));
+        assertTrue(perClient.preHandle(request("c"), new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    void shouldReportConfiguredLimits() {
+        assertEquals(3, limiter.burst());
+        assertEquals(0.1, limiter.ratePerSecond(), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketRequestLimitInterceptor(0, 3, null));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketRequestLimitInterceptor(1, 0, null));
+    }
+
+    private boolean admitted(MockHttpServletRequest request) {
+        return limiter.preHandle(request, new MockHttpServletResponse(), null);
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/api/v1/employee");
+    }
+
+    private static MockHttpServletRequest request(String client) {
+        MockHttpServletRequest request = request();
+        request.addHeader("X-Client", client);
+        return request;
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+}